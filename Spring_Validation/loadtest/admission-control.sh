@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Point-read latency under a scan flood, with and without admission control.
+# Runs GET /api/v1/students/{id} alone, then alongside a flood of searches and
+# NDJSON department streams, once with admission control off and once on.
+# Prints the by-id result of each run plus the flood results (rejections count
+# as errors there). The load generators share the machine with the app, so on
+# few cores their own CPU use also slows point reads.
+#
+# The goal (by-id p99 under a scan flood held near its p99 alone) is NOT verified:
+# the only run so far was on a single core, where by-id p99 under the flood was
+# no better with admission on (707ms) than off (602ms). It needs a rerun on a
+# multi-core host or with the generators on another machine.
+#
+#   loadtest/admission-control.sh [students] [seconds]
+set -euo pipefail
+source "$(dirname "$0")/common.sh"
+
+STUDENTS=${1:-20000}
+SECONDS_PER_RUN=${2:-30}
+FLOOD="${WORK_DIR}/flood"
+
+build_app
+build_load_suite
+
+# Every load generator runs on this host, i.e. one client: lift the point-read
+# rate so only the scan limits are exercised
+for ADMISSION in off on; do
+    ENABLED=$([[ "$ADMISSION" == on ]] && echo true || echo false)
+    start_app --spring.profiles.active=prod --app.admission.enabled="$ENABLED" \
+        --app.admission.point.rate=100000 --app.admission.point.burst=100000
+    seed "$STUDENTS"
+    load get-by-id 8 10 warmup >/dev/null
+    
+    if [[ "$ADMISSION" == off ]]; then
+        load get-by-id 8 "$SECONDS_PER_RUN" alone
+    fi
+    load search 32 "$SECONDS_PER_RUN" "flood-admission-${ADMISSION}" >"${FLOOD}.search" &
+    SEARCH_PID=$!
+    load department-ndjson 16 "$SECONDS_PER_RUN" "flood-admission-${ADMISSION}" >"${FLOOD}.stream" &
+    STREAM_PID=$!
+    load get-by-id 8 "$SECONDS_PER_RUN" "flood-admission-${ADMISSION}"
+    wait "$SEARCH_PID" "$STREAM_PID"
+    cat "${FLOOD}.search" "${FLOOD}.stream"
+    
+    stop_app
+done
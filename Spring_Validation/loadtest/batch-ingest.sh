@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Ingest throughput in rows/s: one POST per row ("create") against the batch
+# endpoint ("batch", 100 rows per request), each with Hibernate's JDBC batching
+# on (hibernate.jdbc.batch_size=50, as configured) and off (1). Every run starts
+# a fresh app on the given profiles and warms it up first. Prints one JSON line
+# per run, then a rows/s summary.
+#
+#   loadtest/batch-ingest.sh [seconds] [concurrency] [profiles]
+#   loadtest/batch-ingest.sh 30 4 persistent,prod > results.jsonl
+set -euo pipefail
+source "$(dirname "$0")/common.sh"
+
+SECONDS_PER_RUN=${1:-30}
+CONCURRENCY=${2:-4}
+PROFILES=${3:-prod}
+STUDENTS=1000
+# Rows per "batch" request (BATCH_SIZE in StudentHttpLoadSuite)
+BATCH_ROWS=100
+RESULTS="${WORK_DIR}/results.jsonl"
+
+build_app
+build_load_suite
+
+for JDBC_BATCH in 50 1; do
+    for SCENARIO in create batch; do
+        DATA_DIR="${WORK_DIR}/data"
+        rm -rf "$DATA_DIR"
+        start_app --spring.profiles.active="$PROFILES" --app.data-dir="$DATA_DIR" --app.admission.enabled=false \
+            --spring.jpa.properties.hibernate.jdbc.batch_size="$JDBC_BATCH"
+        load "$SCENARIO" "$CONCURRENCY" 10 warmup >/dev/null
+        ROWS=$([[ $SCENARIO == batch ]] && echo "$BATCH_ROWS" || echo 1)
+        load "$SCENARIO" "$CONCURRENCY" "$SECONDS_PER_RUN" "jdbc-batch-${JDBC_BATCH}" | python3 -c "import json,sys; \
+run = json.loads(sys.stdin.read()); run['jdbcBatchSize'] = $JDBC_BATCH; \
+run['rowsPerSecond'] = round(run['throughput'] * $ROWS); print(json.dumps(run))" | tee -a "$RESULTS"
+        stop_app
+    done
+done
+
+python3 - "$RESULTS" >&2 <<'PY'
+import json, sys
+runs = {(r["name"], r["jdbcBatchSize"]): r for r in map(json.loads, open(sys.argv[1]))}
+print("%-8s %14s %14s" % ("", "jdbc batch 50", "jdbc batch 1"))
+for name in ("create", "batch"):
+    print("%-8s %10d r/s %10d r/s" % (name, runs[(name, 50)]["rowsPerSecond"], runs[(name, 1)]["rowsPerSecond"]))
+print("batch endpoint vs per-row POSTs: %.1fx with JDBC batching, %.1fx without"
+      % tuple(runs[("batch", b)]["rowsPerSecond"] / runs[("create", b)]["rowsPerSecond"] for b in (50, 1)))
+PY
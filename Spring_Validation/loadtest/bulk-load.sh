@@ -0,0 +1,41 @@
+#!/usr/bin/env bash
+# Bulk-load benchmark for the persistent profile: startup on an empty database,
+# load throughput through the batch endpoint, then startup again over the loaded
+# database. Prints one JSON line.
+#
+#   loadtest/bulk-load.sh [rows] [data-dir]
+#   loadtest/bulk-load.sh 1000000 /tmp/studentdb-bench
+set -euo pipefail
+source "$(dirname "$0")/common.sh"
+
+ROWS=${1:-1000000}
+DATA_DIR=${2:-${WORK_DIR}/data}
+
+build_app
+rm -rf "${DATA_DIR:?}"/studentdb.*
+
+elapsed() { python3 -c "print(round($2 - $1, 3))"; }
+
+# Starts the app; STARTUP_SECONDS is the time until it answers requests
+start_persistent() {
+    local started
+    started=$(now)
+    start_app --spring.profiles.active=persistent,prod --app.data-dir="$DATA_DIR"
+    STARTUP_SECONDS=$(elapsed "$started" "$(now)")
+}
+
+start_persistent
+COLD_START=$STARTUP_SECONDS
+LOAD_STARTED=$(now)
+seed "$ROWS"
+LOAD_SECONDS=$(elapsed "$LOAD_STARTED" "$(now)")
+stop_app
+
+start_persistent
+WARM_START=$STARTUP_SECONDS
+COUNT=$(curl -sf "${BASE_URL}/api/v1/students/stats" | python3 -c "import json,sys; print(json.load(sys.stdin)['data']['overall']['count'])")
+stop_app
+
+DB_BYTES=$(stat -c %s "$DATA_DIR"/studentdb.mv.db)
+printf '{"rows":%d,"loaded":%d,"coldStartSeconds":%s,"loadSeconds":%s,"rowsPerSecond":%s,"startSecondsWithData":%s,"dbBytes":%d}\n' \
+    "$ROWS" "$COUNT" "$COLD_START" "$LOAD_SECONDS" "$(python3 -c "print(round($ROWS / $LOAD_SECONDS))")" "$WARM_START" "$DB_BYTES"
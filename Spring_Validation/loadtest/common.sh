@@ -0,0 +1,87 @@
+# Start, seed, load and teardown shared by the load scripts; sourced after
+# `set -euo pipefail`. Moves to Spring_Validation, sets PORT (default 18080) and
+# BASE_URL, and on exit stops the app and removes WORK_DIR, a scratch directory
+# for the calling script's temporary files.
+#
+# JAR=<path> runs an already built jar instead of packaging this tree, e.g. to
+# measure an older build under the same conditions.
+
+cd "$(dirname "${BASH_SOURCE[0]}")/.."
+PORT=${PORT:-18080}
+BASE_URL="http://localhost:${PORT}"
+WORK_DIR=$(mktemp -d)
+APP_PID=
+
+trap 'kill ${APP_PID:-} 2>/dev/null || true; rm -rf "$WORK_DIR"' EXIT
+
+# Packages the app unless JAR is set; arguments go to Maven (e.g. -Paot)
+build_app() {
+    if [[ -z "${JAR:-}" ]]; then
+        sh mvnw -q -DskipTests "$@" package
+        JAR=$(ls target/*-exec.jar | head -1)
+    fi
+}
+
+# Compiles the HTTP load generator (StudentHttpLoadSuite in Spring_Validation_Benchmarks)
+build_load_suite() {
+    (cd .. && sh Spring_Validation/mvnw -q process-classes dependency:build-classpath -pl Spring_Validation_Benchmarks -am \
+        -Dmdep.outputFile="${WORK_DIR}/load-classpath" -Dmdep.includeScope=runtime)
+    LOAD_CLASSPATH="${PWD}/../Spring_Validation_Benchmarks/target/classes:$(cat "${WORK_DIR}/load-classpath")"
+}
+
+# Runs a command on PORT in the background (its output to APP_LOG, if set); APP_PID is its pid
+launch() {
+    if curl -s -o /dev/null "$BASE_URL"; then
+        echo "port ${PORT} is already in use" >&2
+        exit 1
+    fi
+    "$@" --server.port="$PORT" >"${APP_LOG:-/dev/null}" 2>&1 &
+    APP_PID=$!
+}
+
+# Polls a path until the app answers it: ready <path> [interval]
+ready() {
+    until curl -sf -o /dev/null "${BASE_URL}$1"; do
+        if ! kill -0 "$APP_PID" 2>/dev/null; then
+            echo "the app exited before it was ready" >&2
+            exit 1
+        fi
+        sleep "${2:-1}"
+    done
+}
+
+# Starts JAR with the given arguments and waits until it serves reads
+start_app() {
+    launch java -jar "$JAR" "$@"
+    ready "/api/v1/students?limit=1" 0.1
+}
+
+stop_app() {
+    kill "$APP_PID"
+    wait "$APP_PID" 2>/dev/null || true
+    APP_PID=
+}
+
+seed() {
+    bash loadtest/seed-students.sh "$BASE_URL" "$1"
+}
+
+# One closed-loop run against the app, printed as a JSON line (see StudentHttpLoadSuite), over
+# the STUDENTS seeded: load <scenario> <concurrency> <seconds> <label>
+load() {
+    java -cp "$LOAD_CLASSPATH" com.servosys.benchmark.http.StudentHttpLoadSuite --base-url="$BASE_URL" \
+        --students="$STUDENTS" --scenarios="$1" --concurrency="$2" --seconds="$3" --warmup-seconds=0 --label="$4"
+}
+
+# User + system CPU ticks of a process
+cpu_ticks() { awk '{print $14 + $15}' "/proc/$1/stat"; }
+
+# Adds the app's CPU time per request, measured around a load run, to its JSON line:
+# with_cpu <ticks-before> <json-line>
+with_cpu() {
+    python3 -c "import json,sys; run = json.loads(sys.argv[1]); \
+run['cpuMicrosPerRequest'] = round(($(cpu_ticks "$APP_PID") - $1) * 1e6 / $(getconf CLK_TCK) / max(run['requests'], 1), 1); \
+print(json.dumps(run))" "$2"
+}
+
+now() { date +%s.%N; }
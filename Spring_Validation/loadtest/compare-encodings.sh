@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+# Bytes on the wire and response time for reading all students in pages of 1000,
+# per representation, with and without gzip. Prints one JSON line per combination.
+#
+#   loadtest/compare-encodings.sh [students]
+#
+# Serialization CPU per representation is measured by the JMH benchmarks, not here.
+set -euo pipefail
+source "$(dirname "$0")/common.sh"
+
+STUDENTS=${1:-10000}
+PAGE=1000
+
+build_app
+start_app --spring.profiles.active=prod --app.admission.enabled=false
+seed "$STUDENTS"
+
+# Walks every page once, following the cursor; prints "<bytes> <seconds>"
+read_all() {
+    local accept=$1 encoding=$2 after=0 bytes=0 seconds=0
+    while [ -n "$after" ]; do
+        local out stats
+        out="${WORK_DIR}/page"
+        stats=$(curl -sf -o "$out" -w '%{size_download} %{time_total}' -H "Accept: $accept" \
+            ${encoding:+-H "Accept-Encoding: $encoding"} "${BASE_URL}/api/v1/students?limit=${PAGE}&after=${after}")
+        bytes=$((bytes + ${stats% *}))
+        seconds=$(python3 -c "print($seconds + ${stats#* })")
+        # The cursor is read from an uncompressed JSON copy of the same page
+        after=$(curl -sf "${BASE_URL}/api/v1/students?limit=${PAGE}&after=${after}" \
+            | python3 -c "import json,sys; c=json.load(sys.stdin)['data']['nextCursor']; print(c if c is not None else '')")
+    done
+    echo "$bytes $seconds"
+}
+
+for ACCEPT in application/json application/cbor application/vnd.servosys.columnar+json; do
+    for ENCODING in "" gzip; do
+        read_all "$ACCEPT" "$ENCODING" > /dev/null   # warm-up
+        read -r BYTES SECS < <(read_all "$ACCEPT" "$ENCODING")
+        printf '{"accept":"%s","encoding":"%s","students":%d,"bytes":%d,"seconds":%s}\n' \
+            "$ACCEPT" "${ENCODING:-identity}" "$STUDENTS" "$BYTES" "$SECS"
+    done
+done
@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Compares platform-thread and virtual-thread modes (the vthreads profile needs Java 21+).
+#
+#   loadtest/compare-modes.sh [students] [seconds] [concurrency levels...]
+#   loadtest/compare-modes.sh 100000 30 1000 5000 10000 > results.jsonl
+#
+# Raise the open-file limit first (ulimit -n 65536) for 10k concurrent clients.
+set -euo pipefail
+source "$(dirname "$0")/common.sh"
+
+STUDENTS=${1:-100000}
+SECONDS_PER_RUN=${2:-30}
+shift $(( $# < 2 ? $# : 2 ))
+LEVELS=("$@")
+[ ${#LEVELS[@]} -eq 0 ] && LEVELS=(1000 5000 10000)
+
+build_app
+build_load_suite
+
+for MODE in default vthreads; do
+    start_app --spring.profiles.active="$MODE",prod --app.admission.enabled=false
+    seed "$STUDENTS"
+    for SCENARIO in get-by-id search; do
+        for C in "${LEVELS[@]}"; do
+            load "$SCENARIO" "$C" "$SECONDS_PER_RUN" "$MODE"
+        done
+    done
+    stop_app
+done
@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Measures what the department column costs: starts the app file-backed on a
+# fresh data directory, seeds it, runs the department page and stream scenarios,
+# records how much live heap filling the student cache with by-id reads adds,
+# then stops the app (H2 compacts on close) and records the database file size. Prints one JSON line per scenario and one with the sizes.
+#
+#   loadtest/department-dictionary.sh [students] [seconds] [concurrency]
+#
+# JAR=<path> runs an already built jar instead of packaging this tree, e.g. one
+# from before the department dictionary; LABEL=<name> tags its lines.
+set -euo pipefail
+source "$(dirname "$0")/common.sh"
+
+STUDENTS=${1:-100000}
+SECONDS_PER_RUN=${2:-20}
+CONCURRENCY=${3:-16}
+LABEL=${LABEL:-current}
+DATA_DIR="${WORK_DIR}/data"
+
+build_app
+build_load_suite
+start_app --spring.profiles.active=persistent,prod --app.data-dir="$DATA_DIR" --app.admission.enabled=false
+seed "$STUDENTS"
+
+for SCENARIO in department department-ndjson; do
+    # Warm-up (JIT, H2 page cache) is not recorded
+    load "$SCENARIO" "$CONCURRENCY" 10 warmup >/dev/null
+    load "$SCENARIO" "$CONCURRENCY" "$SECONDS_PER_RUN" "$LABEL"
+done
+
+# Java heap in use after a full GC (all generations, no metaspace), whatever the collector
+heap_used_kb() {
+    jcmd "$APP_PID" GC.run >/dev/null
+    jcmd "$APP_PID" GC.heap_info | awk '/generation|heap|Gen/ && !/Metaspace|class space/ \
+        {for (i = 1; i < NF; i++) if ($i == "used") {v = $(i+1); gsub(/[K,]/, "", v); used += v}} END {print used}'
+}
+
+# The student cache holds up to 10000 DTOs; reading that many distinct ids fills it. The
+# heap is dominated by H2's page cache, so only the growth across the fill is reported.
+CACHED=$(( STUDENTS < 10000 ? STUDENTS : 10000 ))
+HEAP_BEFORE=$(heap_used_kb)
+for ((id = 1; id <= CACHED; id++)); do printf 'url = "%s"\noutput = "/dev/null"\n' "${BASE_URL}/api/v1/students/${id}"; done \
+    | curl -s --parallel --parallel-max 16 -K -
+HEAP_AFTER=$(heap_used_kb)
+
+stop_app
+DB_BYTES=$(stat -c %s "$DATA_DIR"/studentdb.mv.db)
+echo "{\"mode\":\"${LABEL}\",\"students\":${STUDENTS},\"cachedStudents\":${CACHED},\"cacheHeapKb\":$(( HEAP_AFTER - HEAP_BEFORE )),\"dbFileBytes\":${DB_BYTES}}"
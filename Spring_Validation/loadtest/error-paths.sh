@@ -0,0 +1,34 @@
+#!/usr/bin/env bash
+# Measures the cost of the error paths next to the happy path: starts the app
+# once, seeds it, and runs get-by-id (200), missing (404 from ResourceNotFoundException),
+# invalid (400 from ValidationException) and invalid-body (400 from @Valid)
+# back to back, printing one line per scenario with throughput, latency and the
+# app's CPU time per request (from /proc).
+#
+#   loadtest/error-paths.sh [students] [seconds] [concurrency]
+#
+# JAR=<path> runs an already built jar instead of packaging this tree, e.g. to
+# measure an older build under the same conditions; LABEL=<name> tags its lines.
+set -euo pipefail
+source "$(dirname "$0")/common.sh"
+
+STUDENTS=${1:-10000}
+SECONDS_PER_RUN=${2:-20}
+CONCURRENCY=${3:-64}
+APP_LOG="${WORK_DIR}/app.log"
+
+build_app
+build_load_suite
+
+# Logs go to a file, as in production, so sampled-vs-unsampled error logging is part of the cost
+start_app --spring.profiles.active=prod --app.admission.enabled=false
+seed "$STUDENTS"
+
+for SCENARIO in get-by-id missing invalid invalid-body; do
+    # Warm-up (JIT, caches) is not recorded
+    load "$SCENARIO" "$CONCURRENCY" 10 warmup >/dev/null
+    TICKS=$(cpu_ticks "$APP_PID")
+    RUN=$(load "$SCENARIO" "$CONCURRENCY" "$SECONDS_PER_RUN" "${LABEL:-current}")
+    with_cpu "$TICKS" "$RUN"
+done
+echo "{\"logBytes\":$(stat -c %s "$APP_LOG")}"
@@ -0,0 +1,66 @@
+#!/usr/bin/env bash
+# Measures what logging costs the request path: alternates app starts with the
+# default logging (console pattern, show-sql, Hibernate SQL at DEBUG and binds at
+# TRACE) and the prod profile (async JSON, no SQL), runs a cached point read
+# (get-by-id) and a page read that queries on every request (list) against each,
+# and prints every run plus a summary line per scenario with median p99 and the
+# median paired p99 change. App output goes to a file, as it would in production,
+# and its size is reported with each run.
+#
+#   loadtest/logging-overhead.sh [students] [seconds] [concurrency] [rounds]
+set -euo pipefail
+source "$(dirname "$0")/common.sh"
+
+STUDENTS=${1:-10000}
+SECONDS_PER_RUN=${2:-30}
+CONCURRENCY=${3:-64}
+ROUNDS=${4:-3}
+RESULTS="${WORK_DIR}/results"
+APP_LOG="${WORK_DIR}/app.log"
+
+build_app
+build_load_suite
+
+# Rounds alternate the order (default/prod, prod/default) so drift on a shared machine cancels out
+for ((round = 0; round < ROUNDS; round++)); do
+    MODES=(default prod)
+    (( round % 2 )) && MODES=(prod default)
+    for MODE in "${MODES[@]}"; do
+        start_app --spring.profiles.active="$MODE" --app.admission.enabled=false
+        seed "$STUDENTS"
+        for SCENARIO in get-by-id list; do
+            # Warm-up (JIT, caches) is not recorded
+            load "$SCENARIO" "$CONCURRENCY" 20 warmup >/dev/null
+            LOG_BYTES=$(stat -c %s "$APP_LOG")
+            TICKS=$(cpu_ticks "$APP_PID")
+            RUN=$(load "$SCENARIO" "$CONCURRENCY" "$SECONDS_PER_RUN" "$MODE")
+            RUN=$(with_cpu "$TICKS" "$RUN")
+            python3 -c "import json,sys; run = json.loads(sys.argv[1]); \
+run['round'] = $round; run['logBytesPerRequest'] = round(($(stat -c %s "$APP_LOG") - $LOG_BYTES) / max(run['requests'], 1)); \
+print(json.dumps(run))" "$RUN" | tee -a "$RESULTS"
+        done
+        stop_app
+    done
+done
+
+python3 - "$RESULTS" <<'PY'
+import json, statistics, sys
+runs = [json.loads(line) for line in open(sys.argv[1])]
+for scenario in dict.fromkeys(run["name"] for run in runs):
+    rounds = {}
+    for run in runs:
+        if run["name"] == scenario:
+            rounds.setdefault(run["round"], {})[run["label"]] = run
+    def median(mode, key):
+        return statistics.median(r[mode][key] for r in rounds.values())
+    # Median over rounds of the default-vs-prod difference within the same round
+    change = statistics.median((r["default"]["p99Ms"] - r["prod"]["p99Ms"]) / r["prod"]["p99Ms"] for r in rounds.values())
+    print(json.dumps({"summary": "logging-overhead", "scenario": scenario, "rounds": len(rounds),
+                      "p99MsDefault": median("default", "p99Ms"), "p99MsProd": median("prod", "p99Ms"),
+                      "p99DefaultOverProdPercent": round(change * 100, 2),
+                      "throughputDefault": median("default", "throughput"), "throughputProd": median("prod", "throughput"),
+                      "cpuMicrosPerRequestDefault": median("default", "cpuMicrosPerRequest"),
+                      "cpuMicrosPerRequestProd": median("prod", "cpuMicrosPerRequest"),
+                      "logBytesPerRequestDefault": median("default", "logBytesPerRequest"),
+                      "logBytesPerRequestProd": median("prod", "logBytesPerRequest")}))
+PY
@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+# Measures the cost of the metrics instrumentation on GET /api/v1/students/{id}:
+# alternates app starts with metrics on and fully off (no http.server.requests
+# observation, no service timers, no statement/row counting), runs the by-id
+# scenario against each, and prints every run plus a summary line with the
+# median paired overhead. The primary figure is the app's CPU time per request (from
+# /proc), which stays meaningful when the load generator shares the machine;
+# throughput and p99 are reported alongside.
+#
+#   loadtest/metrics-overhead.sh [students] [seconds] [concurrency] [rounds]
+set -euo pipefail
+source "$(dirname "$0")/common.sh"
+
+STUDENTS=${1:-10000}
+SECONDS_PER_RUN=${2:-30}
+CONCURRENCY=${3:-64}
+ROUNDS=${4:-3}
+RESULTS="${WORK_DIR}/results"
+
+build_app
+build_load_suite
+
+# Rounds alternate the order (on/off, off/on) so drift on a shared machine cancels out
+for ((round = 0; round < ROUNDS; round++)); do
+    MODES=(on off)
+    (( round % 2 )) && MODES=(off on)
+    for MODE in "${MODES[@]}"; do
+        FLAGS=()
+        if [[ "$MODE" == off ]]; then
+            FLAGS=(--app.metrics.enabled=false --management.metrics.enable.all=false
+                   --management.observations.enable.all=false)
+        fi
+        start_app --spring.profiles.active=prod --app.admission.enabled=false "${FLAGS[@]}"
+        seed "$STUDENTS"
+        # Warm-up (JIT, caches) is not recorded
+        load get-by-id "$CONCURRENCY" 20 warmup >/dev/null
+        TICKS=$(cpu_ticks "$APP_PID")
+        RUN=$(load get-by-id "$CONCURRENCY" "$SECONDS_PER_RUN" "$MODE")
+        with_cpu "$TICKS" "$RUN" | tee -a "$RESULTS"
+        stop_app
+    done
+done
+
+python3 - "$RESULTS" <<'PY'
+import json, statistics, sys
+runs = [json.loads(line) for line in open(sys.argv[1])]
+# Runs come in pairs, one pair per round
+rounds = {}
+for i, run in enumerate(runs):
+    rounds.setdefault(i // 2, {})[run["label"]] = run
+def overhead(key, higher_is_worse=True):
+    # Median over rounds of the on-vs-off difference within the same round
+    deltas = [(r["on"][key] - r["off"][key]) / r["off"][key] * (1 if higher_is_worse else -1)
+              for r in rounds.values()]
+    return round(statistics.median(deltas) * 100, 2)
+def median(mode, key):
+    return statistics.median(run[key] for run in runs if run["label"] == mode)
+print(json.dumps({"summary": "metrics-overhead", "rounds": len(rounds),
+                  "cpuOverheadPercent": overhead("cpuMicrosPerRequest"),
+                  "throughputOverheadPercent": overhead("throughput", higher_is_worse=False),
+                  "cpuMicrosPerRequestOn": median("on", "cpuMicrosPerRequest"),
+                  "cpuMicrosPerRequestOff": median("off", "cpuMicrosPerRequest"),
+                  "p99MsOn": median("on", "p99Ms"), "p99MsOff": median("off", "p99Ms")}))
+PY
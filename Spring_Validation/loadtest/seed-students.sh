@@ -0,0 +1,24 @@
+#!/usr/bin/env bash
+# Seeds synthetic students through the batch endpoint.
+#
+#   loadtest/seed-students.sh <base-url> <students>
+set -euo pipefail
+
+BASE_URL=$1
+STUDENTS=$2
+BATCH=5000
+
+for ((from = 0; from < STUDENTS; from += BATCH)); do
+    python3 - "$from" "$BATCH" "$STUDENTS" <<'PY' | curl -sf -o /dev/null -H 'Content-Type: application/json' --data-binary @- "${BASE_URL}/api/v1/students/batch"
+import json, sys, random
+start, size, total = map(int, sys.argv[1:])
+first = ["Ann", "Lee", "Maria", "Jonas", "Kumar", "Ali", "Joanna", "Sonia", "Marco", "Hanna"]
+last = ["Lee", "Anderson", "Kumari", "Johnson", "Alison", "Marsh", "Brown", "Santos"]
+rows = []
+for i in range(start, min(start + size, total)):
+    rows.append({"firstName": random.choice(first), "lastName": random.choice(last),
+                 "email": "student%d@example.com" % i, "dateOfBirth": "2001-01-01",
+                 "department": "Dept%d" % (i % 40), "year": 1 + i % 5, "cgpa": round(random.uniform(4, 10), 2)})
+print(json.dumps(rows))
+PY
+done
@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+# Startup benchmark: time from launching the JVM to the first successful
+# GET /api/v1/students/{id}, and resident memory at that point, for each way of
+# running the app. Builds with -Paot; the native mode runs only if a native
+# executable was built beforehand (mvn -Pnative native:compile). Prints one JSON
+# line per mode (medians over RUNS starts against a one-student persistent DB).
+#
+#   loadtest/startup-modes.sh [runs]
+set -euo pipefail
+source "$(dirname "$0")/common.sh"
+
+RUNS=${1:-5}
+PROFILES=persistent,prod
+DATA_DIR="${WORK_DIR}/data"
+
+# The AOT code and the CDS archive come from this build, so a prebuilt JAR is not used
+unset JAR
+build_app -Paot
+APP_DIR=target/application
+APP_JAR="${APP_DIR}/$(basename "$JAR")"
+NATIVE=target/$(basename "$JAR" | sed 's/-[0-9].*//')
+
+# One student to fetch; every mode then starts over the same database
+start_app --spring.profiles.active="$PROFILES" --app.data-dir="$DATA_DIR"
+STUDENT_ID=$(curl -sf -H 'Content-Type: application/json' "${BASE_URL}/api/v1/students" -d \
+    '{"firstName":"Ann","lastName":"Lee","email":"startup@example.com","dateOfBirth":"2001-01-01","department":"Physics","year":2,"cgpa":8.5}' \
+    | python3 -c "import json,sys; print(json.load(sys.stdin)['data']['id'])")
+stop_app
+
+# Starts the given command RUNS times and prints the median first-response time and RSS
+measure() {
+    local mode=$1; shift
+    local times=() rss=() started
+    for ((run = 0; run < RUNS; run++)); do
+        started=$(now)
+        launch "$@" --app.data-dir="$DATA_DIR"
+        ready "/api/v1/students/${STUDENT_ID}" 0.02
+        times+=("$(python3 -c "print($(now) - $started)")")
+        rss+=("$(awk '/VmRSS/ {print $2}' "/proc/${APP_PID}/status")")
+        stop_app
+    done
+    python3 - "$mode" "${#times[@]}" "${times[@]}" "${rss[@]}" <<'PY'
+import json, statistics, sys
+mode, n = sys.argv[1], int(sys.argv[2])
+times, rss = list(map(float, sys.argv[3:3 + n])), list(map(int, sys.argv[3 + n:]))
+print(json.dumps({"mode": mode, "runs": n,
+                  "firstResponseSeconds": round(statistics.median(times), 3),
+                  "rssMb": round(statistics.median(rss) / 1024)}))
+PY
+}
+
+measure jvm java -jar "$JAR" --spring.profiles.active="$PROFILES"
+measure jvm-lazy java -jar "$JAR" --spring.profiles.active="$PROFILES",lazy
+measure aot java -Dspring.aot.enabled=true -jar "$APP_JAR" --spring.profiles.active="$PROFILES"
+measure aot-cds java -XX:SharedArchiveFile="${APP_DIR}/application.jsa" -Dspring.aot.enabled=true \
+    -jar "$APP_JAR" --spring.profiles.active="$PROFILES"
+measure aot-cds-lazy java -XX:SharedArchiveFile="${APP_DIR}/application.jsa" -Dspring.aot.enabled=true \
+    -jar "$APP_JAR" --spring.profiles.active="$PROFILES",lazy
+if [[ -x "$NATIVE" ]]; then
+    measure native "$NATIVE" --spring.profiles.active="$PROFILES"
+fi
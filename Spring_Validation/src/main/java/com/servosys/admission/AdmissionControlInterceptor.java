@@ -0,0 +1,103 @@
+package com.servosys.admission;
+
+import com.servosys.exception.ServiceOverloadedException;
+import com.servosys.exception.TooManyRequestsException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for {@link AdmissionControlled} handlers: a per-client
+ * token bucket (429 when empty; clients as named by {@link ClientKeyResolver})
+ * and a per-class concurrency cap (503 when full), both checked before the
+ * handler touches the database. Rejections are
+ * thrown as exceptions and rendered by GlobalExceptionHandler with Retry-After.
+ * A streaming response keeps its permit until the body has been written.
+ */
+@Component
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+    
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    
+    private final ClientKeyResolver clientKeyResolver;
+    private final boolean enabled;
+    private final long overloadRetryAfterSeconds;
+    private final Map<EndpointClass, Limits> limits = new EnumMap<>(EndpointClass.class);
+    private final Map<Method, Optional<Limits>> handlerLimits = new ConcurrentHashMap<>();
+    
+    public AdmissionControlInterceptor(
+            ClientKeyResolver clientKeyResolver,
+            @Value("${app.admission.enabled:true}") boolean enabled,
+            @Value("${app.admission.point.rate:500}") double pointRate,
+            @Value("${app.admission.point.burst:1000}") int pointBurst,
+            @Value("${app.admission.point.max-concurrent:150}") int pointConcurrency,
+            @Value("${app.admission.scan.rate:10}") double scanRate,
+            @Value("${app.admission.scan.burst:20}") int scanBurst,
+            @Value("${app.admission.scan.max-concurrent:8}") int scanConcurrency,
+            @Value("${app.admission.overload-retry-after-seconds:1}") long overloadRetryAfterSeconds) {
+        this.clientKeyResolver = clientKeyResolver;
+        this.enabled = enabled;
+        this.overloadRetryAfterSeconds = overloadRetryAfterSeconds;
+        limits.put(EndpointClass.POINT, new Limits(EndpointClass.POINT,
+                new ClientRateLimiter(pointRate, pointBurst), new ConcurrencyLimiter(pointConcurrency)));
+        limits.put(EndpointClass.SCAN, new Limits(EndpointClass.SCAN,
+                new ClientRateLimiter(scanRate, scanBurst), new ConcurrencyLimiter(scanConcurrency)));
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The async re-dispatch of a streaming response already holds its permit
+        if (!enabled || !(handler instanceof HandlerMethod handlerMethod)
+                || request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            return true;
+        }
+        Limits endpointLimits = handlerLimits.computeIfAbsent(handlerMethod.getMethod(), this::limitsFor).orElse(null);
+        if (endpointLimits == null) {
+            return true;
+        }
+        long waitNanos = endpointLimits.rateLimiter().tryAcquire(
+                clientKeyResolver.clientKey(request), System.nanoTime());
+        if (waitNanos > 0) {
+            throw new TooManyRequestsException("Rate limit exceeded for " + endpointLimits.name() + " requests",
+                    (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+        }
+        if (!endpointLimits.concurrencyLimiter().tryAcquire()) {
+            throw new ServiceOverloadedException("Too many concurrent " + endpointLimits.name() + " requests",
+                    overloadRetryAfterSeconds);
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, endpointLimits);
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Limits permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.concurrencyLimiter().release();
+        }
+    }
+    
+    private Optional<Limits> limitsFor(Method method) {
+        AdmissionControlled annotation = method.getAnnotation(AdmissionControlled.class);
+        return annotation == null ? Optional.empty() : Optional.of(limits.get(annotation.value()));
+    }
+    
+    private record Limits(EndpointClass endpointClass, ClientRateLimiter rateLimiter,
+                          ConcurrencyLimiter concurrencyLimiter) {
+        
+        String name() {
+            return endpointClass.name().toLowerCase();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.servosys.admission;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a handler method behind {@link AdmissionControlInterceptor}: requests
+ * are rate limited per client and capped in concurrency for the given class.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdmissionControlled {
+    
+    EndpointClass value();
+}
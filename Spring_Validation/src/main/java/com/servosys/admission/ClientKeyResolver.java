@@ -0,0 +1,34 @@
+package com.servosys.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Names the client behind a request, for per-client rate limits and
+ * read-your-writes pinning. If app.client-id-header names a header that the
+ * gateway sets, its value identifies the client; otherwise the remote
+ * address does. With server.forward-headers-strategy=native that address is
+ * taken from X-Forwarded-For when the request arrives through a trusted
+ * (internal) proxy, so clients behind a load balancer are not lumped together.
+ */
+@Component
+public class ClientKeyResolver {
+    
+    private final String clientIdHeader;
+    
+    public ClientKeyResolver(@Value("${app.client-id-header:}") String clientIdHeader) {
+        this.clientIdHeader = clientIdHeader.isBlank() ? null : clientIdHeader;
+    }
+    
+    // Prefixed so a client id can never collide with an address
+    public String clientKey(HttpServletRequest request) {
+        if (clientIdHeader != null) {
+            String clientId = request.getHeader(clientIdHeader);
+            if (clientId != null && !clientId.isBlank()) {
+                return "id:" + clientId;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,52 @@
+package com.servosys.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets, implemented as the generic cell rate algorithm:
+ * each client holds one AtomicLong (its theoretical arrival time) updated with
+ * a single CAS, so admission never takes a lock. Idle clients are evicted.
+ */
+public class ClientRateLimiter {
+    
+    private static final Duration IDLE_EXPIRY = Duration.ofMinutes(10);
+    private static final long MAX_CLIENTS = 100_000;
+    
+    // Nanoseconds between tokens, and how far ahead of schedule a client may run (burst - 1 tokens)
+    private final long emissionInterval;
+    private final long burstTolerance;
+    private final Cache<String, AtomicLong> arrivals = Caffeine.newBuilder()
+            .expireAfterAccess(IDLE_EXPIRY)
+            .maximumSize(MAX_CLIENTS)
+            .build();
+    
+    public ClientRateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.emissionInterval = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstTolerance = emissionInterval * (burst - 1);
+    }
+    
+    /**
+     * Takes a token for {@code client}; returns 0 if one was available, otherwise
+     * the nanoseconds until the next one (nothing is taken in that case).
+     */
+    public long tryAcquire(String client, long nowNanos) {
+        AtomicLong arrival = arrivals.get(client, key -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long theoretical = arrival.get();
+            if (theoretical > nowNanos + burstTolerance) {
+                return theoretical - burstTolerance - nowNanos;
+            }
+            if (arrival.compareAndSet(theoretical, Math.max(theoretical, nowNanos) + emissionInterval)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.servosys.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking cap on in-flight requests: callers over the limit are turned
+ * away immediately instead of queueing for a pooled connection.
+ */
+public class ConcurrencyLimiter {
+    
+    private final int maxConcurrent;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    public ConcurrencyLimiter(int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be positive");
+        }
+        this.maxConcurrent = maxConcurrent;
+    }
+    
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxConcurrent) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+}
@@ -0,0 +1,14 @@
+package com.servosys.admission;
+
+/**
+ * Cost class of an endpoint; each class has its own per-client rate and
+ * concurrency limit (app.admission.point.*, app.admission.scan.*).
+ */
+public enum EndpointClass {
+    
+    // Single-row reads by key, usually served from cache
+    POINT,
+    
+    // Lists, searches and streams that walk an index or the table
+    SCAN
+}
@@ -0,0 +1,29 @@
+package com.servosys.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Caffeine-backed caches; size, TTL and stats recording are set through
+ * spring.cache.caffeine.spec in application.properties.
+ * <p>
+ * The cache advisor runs ahead of the transaction advisor (Spring Boot's, at
+ * {@link Ordered#LOWEST_PRECEDENCE}), so on a method that is both
+ * {@code @Cacheable} and {@code @Transactional} a hit returns before a
+ * transaction begins or a connection is taken, and a sync miss caches what a
+ * committed transaction read.
+ */
+@Configuration
+@EnableCaching(order = CacheConfig.ADVICE_ORDER)
+public class CacheConfig {
+    
+    // One ahead of the transaction advisor, so caching wraps transactions
+    static final int ADVICE_ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+    
+    // VersionedStudent by id: the row and its validators
+    public static final String STUDENTS = "students";
+    
+    // Student id by email, or null for an email no student has
+    public static final String STUDENT_IDS_BY_EMAIL = "studentIdsByEmail";
+}
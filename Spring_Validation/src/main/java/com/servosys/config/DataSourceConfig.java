@@ -0,0 +1,60 @@
+package com.servosys.config;
+
+import com.servosys.replica.ReadReplica;
+import com.servosys.replica.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceConfig {
+    
+    /**
+     * Wraps the pooled DataSource in a {@link FairConnectionGate} sized to the
+     * Hikari pool. Enabled by the vthreads profile.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.fair-gate.enabled", havingValue = "true")
+    static BeanPostProcessor fairConnectionGatePostProcessor(Environment environment) {
+        long timeoutMillis = environment.getProperty("app.datasource.fair-gate.acquire-timeout-ms", Long.class, 5_000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    return new FairConnectionGate(hikari, hikari.getMaximumPoolSize(), timeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+    
+    /**
+     * Routes read-only transactions to the read replica. The lazy proxy defers
+     * fetching a connection until the first statement, by which time a
+     * read-only transaction has marked it read-only; only then is the
+     * {@link ReplicaRoutingDataSource} asked for one. Declared after the fair
+     * gate so the gate still sees the bare Hikari pool.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+    static BeanPostProcessor readReplicaRoutingPostProcessor(ObjectProvider<ReadReplica> replica) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource primary) {
+                    LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+                    proxy.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replica));
+                    return proxy;
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.servosys.config;
+
+import com.servosys.metrics.QueryCountingStatementInspector;
+import com.servosys.metrics.RepositoryRowCounter;
+import com.servosys.metrics.ServiceTimingInterceptor;
+import com.servosys.service.StudentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Instrumentation beyond Spring Boot's http.server.requests timers: per-method
+ * timers on {@link StudentService} and per-request statement and row counts
+ * (see RequestMetricsFilter). Exposed at /actuator/prometheus; turned off with
+ * app.metrics.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsConfig {
+    
+    // An inspector configured explicitly through spring.jpa.properties wins
+    @Bean
+    HibernatePropertiesCustomizer statementCountingCustomizer() {
+        return properties -> properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR,
+                new QueryCountingStatementInspector());
+    }
+    
+    @Bean
+    static BeanPostProcessor repositoryRowCountingPostProcessor() {
+        RepositoryRowCounter rowCounter = new RepositoryRowCounter();
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(rowCounter)));
+                }
+                return bean;
+            }
+        };
+    }
+    
+    /**
+     * Wraps the StudentService bean in a timing proxy. Not Ordered, so it runs
+     * after the transaction/cache auto-proxy creator and times the whole call,
+     * transaction and cache lookup included.
+     */
+    @Bean
+    static BeanPostProcessor studentServiceTimingPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof StudentService) {
+                    ProxyFactory proxyFactory = new ProxyFactory(bean);
+                    proxyFactory.setInterfaces(StudentService.class);
+                    proxyFactory.addAdvice(new ServiceTimingInterceptor(
+                            registry.getObject(), "student.service", StudentService.class));
+                    return proxyFactory.getProxy();
+                }
+                return bean;
+            }
+        };
+    }
+}
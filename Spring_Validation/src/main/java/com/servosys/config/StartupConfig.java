@@ -0,0 +1,28 @@
+package com.servosys.config;
+
+import com.servosys.export.StudentExportService;
+import com.servosys.replica.ReadReplica;
+import com.servosys.service.DepartmentDictionary;
+import com.servosys.service.StudentChangeFeed;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans that must still start eagerly when the lazy profile turns on
+ * spring.main.lazy-initialization. SmartInitializingSingletons such as
+ * StudentStatsService are already excluded by Spring Boot.
+ */
+@Configuration
+public class StartupConfig {
+    
+    // The change feed owns the outbox purge schedule, which must run even if nothing reads the feed.
+    // The department dictionary must be loaded before the first student row is converted.
+    // The read replica starts measuring lag at startup rather than on the first read.
+    // The export service clears files left by the previous run and purges expired ones.
+    @Bean
+    static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(StudentChangeFeed.class, DepartmentDictionary.class,
+                ReadReplica.class, StudentExportService.class);
+    }
+}
@@ -0,0 +1,77 @@
+package com.servosys.config;
+
+import com.servosys.dto.ApiResponse;
+import com.servosys.dto.CursorPage;
+import com.servosys.dto.StudentColumns;
+import com.servosys.dto.StudentDTO;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes {@link ApiResponse}s as JSON with student lists (and the items of
+ * student pages) in {@link StudentColumns} form when the client accepts
+ * {@value #MEDIA_TYPE_VALUE}. Other payloads are written unchanged.
+ */
+public class StudentColumnarHttpMessageConverter extends AbstractHttpMessageConverter<ApiResponse<?>> {
+    
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.servosys.columnar+json";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+    
+    private final ObjectMapper objectMapper;
+    
+    public StudentColumnarHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MEDIA_TYPE);
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ApiResponse.class.isAssignableFrom(clazz);
+    }
+    
+    // Only when asked for by name: never offered for Accept: */* or application/json. The type
+    // is still producible because the JSON converter advertises application/*+json.
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return supports(clazz) && mediaType != null && MEDIA_TYPE.equalsTypeAndSubtype(mediaType);
+    }
+    
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+    
+    @Override
+    protected ApiResponse<?> readInternal(Class<? extends ApiResponse<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar request bodies are not supported", inputMessage);
+    }
+    
+    @Override
+    protected void writeInternal(ApiResponse<?> response, HttpOutputMessage outputMessage) throws IOException {
+        ApiResponse<Object> columnar = new ApiResponse<>(response.isSuccess(), response.getMessage(),
+                toColumns(response.getData()), response.getTimestamp(), response.getStatus());
+        objectMapper.writeValue(outputMessage.getBody(), columnar);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Object toColumns(Object data) {
+        if (data instanceof CursorPage<?> page && isStudents(page.getItems())) {
+            return StudentColumns.Page.of((CursorPage<StudentDTO>) page);
+        }
+        if (data instanceof List<?> list && isStudents(list)) {
+            return StudentColumns.of((List<StudentDTO>) list);
+        }
+        return data;
+    }
+    
+    private static boolean isStudents(List<?> items) {
+        return items.stream().allMatch(StudentDTO.class::isInstance);
+    }
+}
@@ -0,0 +1,46 @@
+package com.servosys.config;
+
+import com.servosys.dto.StudentDTO;
+import com.servosys.validation.CompiledBeanValidator;
+import com.servosys.validation.CompiledValidator;
+import com.servosys.validation.ConstraintCompiler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.Validator;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Request bodies of the classes compiled here are validated by
+ * {@link CompiledBeanValidator}; everything else still goes through
+ * Hibernate Validator (Boot's "defaultValidator").
+ */
+@Configuration
+public class ValidationConfig implements WebMvcConfigurer {
+    
+    private final ObjectProvider<CompiledBeanValidator> mvcValidator;
+    
+    public ValidationConfig(ObjectProvider<CompiledBeanValidator> mvcValidator) {
+        this.mvcValidator = mvcValidator;
+    }
+    
+    @Bean
+    public CompiledValidator<StudentDTO> studentDtoValidator() {
+        return ConstraintCompiler.compile(StudentDTO.class);
+    }
+    
+    @Bean
+    public CompiledBeanValidator compiledBeanValidator(List<CompiledValidator<?>> validators,
+                                                       @Qualifier("defaultValidator") SmartValidator defaultValidator) {
+        return new CompiledBeanValidator(validators, defaultValidator);
+    }
+    
+    @Override
+    public Validator getValidator() {
+        return mvcValidator.getObject();
+    }
+}
@@ -0,0 +1,36 @@
+package com.servosys.config;
+
+import com.servosys.admission.AdmissionControlInterceptor;
+import com.servosys.replica.ReadYourWritesInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Extra response encodings, admission control and read-replica routing. CBOR (application/cbor) is
+ * registered by Boot because jackson-dataformat-cbor is on the classpath; gzip
+ * for large responses is configured under server.compression.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+    
+    private final ObjectMapper objectMapper;
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+    private final ReadYourWritesInterceptor readYourWritesInterceptor;
+    
+    // Custom converters go ahead of the JSON converter, which would otherwise also claim application/*+json
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.addCustomConverter(new StudentColumnarHttpMessageConverter(objectMapper));
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionControlInterceptor);
+        registry.addInterceptor(readYourWritesInterceptor);
+    }
+}
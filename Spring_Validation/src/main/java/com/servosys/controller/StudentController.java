@@ -1,16 +1,54 @@
 package com.servosys.controller;
 
+import com.servosys.admission.AdmissionControlled;
+import com.servosys.admission.EndpointClass;
 import com.servosys.dto.ApiResponse;
+import com.servosys.dto.BatchItemResult;
+import com.servosys.dto.CursorPage;
+import com.servosys.dto.StudentChangeBatch;
+import com.servosys.dto.StatusChangeRequest;
+import com.servosys.dto.StatusChangeResult;
 import com.servosys.dto.StudentDTO;
+import com.servosys.dto.StudentStatsReport;
+import com.servosys.dto.StudentVersion;
+import com.servosys.dto.VersionedStudent;
+import com.servosys.exception.ValidationException;
+import com.servosys.replica.ReadYourWritesInterceptor;
+import com.servosys.service.StudentChangeFeed;
 import com.servosys.service.StudentService;
+import com.servosys.service.StudentStatsService;
+import com.servosys.service.StudentTableVersion;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/v1/students")
@@ -18,33 +56,68 @@ import java.util.List;
 @Slf4j
 public class StudentController {
     
+    // What weakEtag writes for a student: <id>-<version>, then -<Accept hash> if there was one
+    private static final Pattern STUDENT_ETAG = Pattern.compile("(\\d{1,18})-(\\d{1,18})(?:-[0-9a-f]{1,8})?");
+    
     private final StudentService studentService;
+    private final StudentStatsService studentStatsService;
+    private final StudentTableVersion tableVersion;
+    private final StudentChangeFeed changeFeed;
+    private final ObjectMapper objectMapper;
     
     // Create Student
     @PostMapping
     public ResponseEntity<ApiResponse<StudentDTO>> createStudent(
             @Valid @RequestBody StudentDTO studentDTO) {
-        log.info("Creating student with email: {}", studentDTO.getEmail());
+        log.debug("Creating student with email: {}", studentDTO.getEmail());
         StudentDTO createdStudent = studentService.createStudent(studentDTO);
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(ApiResponse.created(createdStudent, "Student created successfully"));
     }
     
+    // Bulk Create/Update Students (items with an id are updates)
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<BatchItemResult>>> saveStudentsInBatch(
+            @RequestBody List<StudentDTO> studentDTOs) {
+        log.debug("Processing student batch of size: {}", studentDTOs.size());
+        List<BatchItemResult> results = studentService.saveStudentsInBatch(studentDTOs);
+        long failed = results.stream().filter(result -> !result.isSuccess()).count();
+        return ResponseEntity.ok(ApiResponse.success(results,
+                String.format("Batch processed: %d succeeded, %d failed", results.size() - failed, failed)));
+    }
+    
     // Get Student by ID
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<StudentDTO>> getStudentById(@PathVariable Long id) {
-        log.info("Getting student by ID: {}", id);
-        StudentDTO student = studentService.getStudentById(id);
-        return ResponseEntity.ok(ApiResponse.success(student, "Student retrieved successfully"));
+    @AdmissionControlled(EndpointClass.POINT)
+    public ResponseEntity<ApiResponse<StudentDTO>> getStudentById(@PathVariable Long id, WebRequest request) {
+        log.debug("Getting student by ID: {}", id);
+        VersionedStudent student = studentService.getStudentById(id);
+        StudentVersion version = student.getVersion();
+        if (request.checkNotModified(studentEtag(id, version, request), epochMillis(version.getUpdatedAt()))) {
+            return null;
+        }
+        return ResponseEntity.ok(ApiResponse.success(student.getStudent(), "Student retrieved successfully"));
     }
     
-    // Get All Students
+    // Get All Students (keyset paginated)
     @GetMapping
-    public ResponseEntity<ApiResponse<List<StudentDTO>>> getAllStudents() {
-        log.info("Getting all students");
-        List<StudentDTO> students = studentService.getAllStudents();
-        return ResponseEntity.ok(ApiResponse.success(students, "Students retrieved successfully"));
+    @AdmissionControlled(EndpointClass.SCAN)
+    public ResponseEntity<ApiResponse<CursorPage<StudentDTO>>> getAllStudents(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        log.debug("Getting students after ID: {}", after);
+        return collection(request, () -> ApiResponse.success(
+                studentService.getAllStudents(after, limit), "Students retrieved successfully"));
+    }
+    
+    // Stream All Students as NDJSON
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @AdmissionControlled(EndpointClass.SCAN)
+    public ResponseEntity<StreamingResponseBody> streamAllStudents(WebRequest request) {
+        log.debug("Streaming all students");
+        return ndjson(request, studentService::streamAllStudents);
     }
     
     // Update Student
@@ -52,41 +125,83 @@ public class StudentController {
     public ResponseEntity<ApiResponse<StudentDTO>> updateStudent(
             @PathVariable Long id,
             @Valid @RequestBody StudentDTO studentDTO) {
-        log.info("Updating student with ID: {}", id);
+        log.debug("Updating student with ID: {}", id);
         StudentDTO updatedStudent = studentService.updateStudent(id, studentDTO);
         return ResponseEntity.ok(ApiResponse.success(updatedStudent, "Student updated successfully"));
     }
     
+    // Partially Update Student: JSON merge patch (RFC 7396) over the scalar fields. Absent
+    // fields are left alone, explicit nulls clear them. If-Match takes the ETag of a GET.
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ApiResponse<StudentDTO>> patchStudent(
+            @PathVariable Long id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            WebRequest request) {
+        log.debug("Patching student with ID: {}", id);
+        if (!patch.isObject() || patch.isEmpty()) {
+            throw new ValidationException("Patch must be a non-empty JSON object");
+        }
+        StudentDTO changes;
+        try {
+            changes = objectMapper.treeToValue(patch, StudentDTO.class);
+        } catch (JacksonException e) {
+            throw new ValidationException("Malformed patch: " + e.getOriginalMessage());
+        }
+        VersionedStudent patched = studentService.patchStudent(id, changes,
+                new LinkedHashSet<>(patch.propertyNames()), expectedVersions(id, ifMatch));
+        return ResponseEntity.ok()
+                .eTag(studentEtag(id, patched.getVersion(), request))
+                .lastModified(epochMillis(patched.getVersion().getUpdatedAt()))
+                .body(ApiResponse.success(patched.getStudent(), "Student patched successfully"));
+    }
+    
     // Delete Student
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteStudent(@PathVariable Long id) {
-        log.info("Deleting student with ID: {}", id);
+        log.debug("Deleting student with ID: {}", id);
         studentService.deleteStudent(id);
         return ResponseEntity.ok(ApiResponse.success("Student deleted successfully"));
     }
     
-    // Get Students by Department
+    // Get Students by Department (keyset paginated)
     @GetMapping("/department/{department}")
-    public ResponseEntity<ApiResponse<List<StudentDTO>>> getStudentsByDepartment(
-            @PathVariable String department) {
-        log.info("Getting students by department: {}", department);
-        List<StudentDTO> students = studentService.getStudentsByDepartment(department);
-        return ResponseEntity.ok(ApiResponse.success(students, "Students retrieved successfully"));
+    @AdmissionControlled(EndpointClass.SCAN)
+    public ResponseEntity<ApiResponse<CursorPage<StudentDTO>>> getStudentsByDepartment(
+            @PathVariable String department,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        log.debug("Getting students by department: {}", department);
+        return collection(request, () -> ApiResponse.success(
+                studentService.getStudentsByDepartment(department, after, limit), "Students retrieved successfully"));
+    }
+    
+    // Stream Students by Department as NDJSON
+    @GetMapping(value = "/department/{department}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @AdmissionControlled(EndpointClass.SCAN)
+    public ResponseEntity<StreamingResponseBody> streamStudentsByDepartment(@PathVariable String department,
+                                                                            WebRequest request) {
+        log.debug("Streaming students by department: {}", department);
+        return ndjson(request, sink -> studentService.streamStudentsByDepartment(department, sink));
     }
     
     // Search Students by Name
     @GetMapping("/search")
+    @AdmissionControlled(EndpointClass.SCAN)
     public ResponseEntity<ApiResponse<List<StudentDTO>>> searchStudentsByName(
-            @RequestParam String name) {
-        log.info("Searching students by name: {}", name);
-        List<StudentDTO> students = studentService.searchStudentsByName(name);
-        return ResponseEntity.ok(ApiResponse.success(students, "Students retrieved successfully"));
+            @RequestParam String name,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest request) {
+        log.debug("Searching students by name: {}", name);
+        return collection(request, () -> ApiResponse.success(
+                studentService.searchStudentsByName(name, limit), "Students retrieved successfully"));
     }
     
     // Deactivate Student
     @PatchMapping("/{id}/deactivate")
     public ResponseEntity<ApiResponse<StudentDTO>> deactivateStudent(@PathVariable Long id) {
-        log.info("Deactivating student with ID: {}", id);
+        log.debug("Deactivating student with ID: {}", id);
         StudentDTO student = studentService.deactivateStudent(id);
         return ResponseEntity.ok(ApiResponse.success(student, "Student deactivated successfully"));
     }
@@ -94,26 +209,196 @@ public class StudentController {
     // Activate Student
     @PatchMapping("/{id}/activate")
     public ResponseEntity<ApiResponse<StudentDTO>> activateStudent(@PathVariable Long id) {
-        log.info("Activating student with ID: {}", id);
+        log.debug("Activating student with ID: {}", id);
         StudentDTO student = studentService.activateStudent(id);
         return ResponseEntity.ok(ApiResponse.success(student, "Student activated successfully"));
     }
     
-    // Get Active Students
+    // Bulk Deactivate Students (by ids or by year)
+    @PatchMapping("/deactivate")
+    public ResponseEntity<ApiResponse<StatusChangeResult>> deactivateStudents(
+            @Valid @RequestBody StatusChangeRequest request) {
+        log.debug("Bulk deactivating students");
+        StatusChangeResult result = studentService.changeStatus(request, false);
+        return ResponseEntity.ok(ApiResponse.success(result,
+                String.format("%d students deactivated", result.getChanged())));
+    }
+    
+    // Bulk Activate Students (by ids or by year)
+    @PatchMapping("/activate")
+    public ResponseEntity<ApiResponse<StatusChangeResult>> activateStudents(
+            @Valid @RequestBody StatusChangeRequest request) {
+        log.debug("Bulk activating students");
+        StatusChangeResult result = studentService.changeStatus(request, true);
+        return ResponseEntity.ok(ApiResponse.success(result,
+                String.format("%d students activated", result.getChanged())));
+    }
+    
+    // Get Active Students (keyset paginated)
     @GetMapping("/active")
-    public ResponseEntity<ApiResponse<List<StudentDTO>>> getActiveStudents() {
-        log.info("Getting active students");
-        List<StudentDTO> students = studentService.getActiveStudents();
-        return ResponseEntity.ok(ApiResponse.success(students, "Active students retrieved successfully"));
+    @AdmissionControlled(EndpointClass.SCAN)
+    public ResponseEntity<ApiResponse<CursorPage<StudentDTO>>> getActiveStudents(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        log.debug("Getting active students");
+        return collection(request, () -> ApiResponse.success(
+                studentService.getActiveStudents(after, limit), "Active students retrieved successfully"));
+    }
+    
+    // Stream Active Students as NDJSON
+    @GetMapping(value = "/active", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @AdmissionControlled(EndpointClass.SCAN)
+    public ResponseEntity<StreamingResponseBody> streamActiveStudents(WebRequest request) {
+        log.debug("Streaming active students");
+        return ndjson(request, studentService::streamActiveStudents);
     }
     
-    // Get Top Performing Students
+    // Get Department/Year Statistics
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<StudentStatsReport>> getStats(WebRequest request) {
+        log.debug("Getting student statistics");
+        return collection(request, () -> ApiResponse.success(studentStatsService.getStats(),
+                "Student statistics retrieved successfully"));
+    }
+    
+    // Get Top Performing Students (best first; limit is 1..1000 and defaults to the maximum,
+    // a larger limit is rejected rather than cut short)
     @GetMapping("/top-performing")
+    @AdmissionControlled(EndpointClass.SCAN)
     public ResponseEntity<ApiResponse<List<StudentDTO>>> getTopPerformingStudents(
             @RequestParam Integer year,
-            @RequestParam Double minCgpa) {
-        log.info("Getting top performing students for year: {} with CGPA >= {}", year, minCgpa);
-        List<StudentDTO> students = studentService.getTopPerformingStudents(year, minCgpa);
-        return ResponseEntity.ok(ApiResponse.success(students, "Top performing students retrieved successfully"));
+            @RequestParam Double minCgpa,
+            @RequestParam(defaultValue = "1000") int limit,
+            WebRequest request) {
+        log.debug("Getting top {} performing students for year: {} with CGPA >= {}", limit, year, minCgpa);
+        return collection(request, () -> ApiResponse.success(
+                studentService.getTopPerformingStudents(year, minCgpa, limit),
+                "Top performing students retrieved successfully"));
+    }
+    
+    // Get Top-K Students by CGPA within a year and/or department
+    @GetMapping("/rankings")
+    @AdmissionControlled(EndpointClass.SCAN)
+    public ResponseEntity<ApiResponse<List<StudentDTO>>> getRankings(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) Double minCgpa,
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest request) {
+        log.debug("Getting top {} students for year: {} department: {}", limit, year, department);
+        return collection(request, () -> ApiResponse.success(
+                studentService.getTopStudents(year, department, minCgpa, limit), "Rankings retrieved successfully"));
+    }
+    
+    // Get Changes after a Cursor (change feed, oldest first)
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<StudentChangeBatch>> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        log.debug("Getting student changes since: {}", since);
+        StudentChangeBatch changes = changeFeed.read(since, limit);
+        return ResponseEntity.ok(ApiResponse.success(changes, "Student changes retrieved successfully"));
+    }
+    
+    // Tail Changes as Server-Sent Events; reconnecting clients resume from Last-Event-ID
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter tailChanges(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        log.debug("Tailing student changes since: {}", lastEventId != null ? lastEventId : since);
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : since != null ? since : 0L);
+    }
+    
+    // Weak validators: the envelope's timestamp makes every response body differ byte-wise.
+    // The Accept header is folded in so JSON, CBOR and columnar bodies never share a tag.
+    private static String studentEtag(Long id, StudentVersion version, WebRequest request) {
+        return weakEtag(id + "-" + version.getVersion(), request);
+    }
+    
+    // If-Match compares the row version inside our own (weak) tags: the representations of
+    // one version differ only in encoding and envelope, which a write does not care about.
+    // Null means no precondition; otherwise the versions named by tags of this student, which
+    // is empty (never matches) when every tag belongs to another student or is not ours.
+    private static Set<Long> expectedVersions(Long id, String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        List<ETag> tags = ETag.parse(ifMatch);
+        if (tags.isEmpty()) {
+            throw new ValidationException("If-Match must be * or a list of ETags");
+        }
+        Set<Long> versions = new HashSet<>();
+        for (ETag tag : tags) {
+            if (tag.isWildcard()) {
+                return null;
+            }
+            Matcher matcher = STUDENT_ETAG.matcher(tag.tag());
+            if (matcher.matches() && matcher.group(1).equals(id.toString())) {
+                versions.add(Long.parseLong(matcher.group(2)));
+            }
+        }
+        return versions;
+    }
+    
+    private static String weakEtag(String version, WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return "W/\"" + version + (accept != null ? "-" + Integer.toHexString(accept.hashCode()) : "") + "\"";
+    }
+    
+    private static long epochMillis(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+    
+    // Collection validators are the table version, taken before any row is read (see
+    // StudentTableVersion), so a match is answered with 304 before anything is read or serialized.
+    // A body the replica served may predate that version, so it goes out without validators.
+    private <T> ResponseEntity<T> collection(WebRequest request, Supplier<T> read) {
+        StudentTableVersion.Version version = tableVersion.current();
+        if (collectionNotModified(request, version)) {
+            return collectionValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), request, version).build();
+        }
+        T body = read.get();
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        return (ReadYourWritesInterceptor.servedFromReplica(request) ? ok
+                : collectionValidators(ok, request, version)).body(body);
+    }
+    
+    // Writes one JSON document per line straight from the DB cursor; nothing is buffered beyond the socket.
+    // The rows are read after the headers have gone out, so the validators are left off whenever the
+    // request may read from the replica at all.
+    private ResponseEntity<StreamingResponseBody> ndjson(WebRequest request, Consumer<Consumer<StudentDTO>> source) {
+        StudentTableVersion.Version version = tableVersion.current();
+        if (collectionNotModified(request, version)) {
+            return collectionValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), request, version).build();
+        }
+        StreamingResponseBody body = out -> source.accept(student -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(student));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON);
+        return (ReadYourWritesInterceptor.replicaReadsAllowed(request) ? ok
+                : collectionValidators(ok, request, version)).body(body);
+    }
+    
+    // Evaluated on a copy without the response: WebRequest.checkNotModified would also set the
+    // validators on a 200, before it is known where the body will be read from
+    private boolean collectionNotModified(WebRequest request, StudentTableVersion.Version version) {
+        HttpServletRequest servletRequest = ((NativeWebRequest) request).getNativeRequest(HttpServletRequest.class);
+        return new ServletWebRequest(servletRequest)
+                .checkNotModified(collectionEtag(request, version), version.lastModified());
+    }
+    
+    private ResponseEntity.BodyBuilder collectionValidators(ResponseEntity.BodyBuilder response, WebRequest request,
+                                                            StudentTableVersion.Version version) {
+        return response.eTag(collectionEtag(request, version)).lastModified(version.lastModified());
+    }
+    
+    private String collectionEtag(WebRequest request, StudentTableVersion.Version version) {
+        return weakEtag(tableVersion.tag(version), request);
     }
 }
\ No newline at end of file
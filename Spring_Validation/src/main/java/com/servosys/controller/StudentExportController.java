@@ -0,0 +1,98 @@
+package com.servosys.controller;
+
+import com.servosys.dto.ApiResponse;
+import com.servosys.dto.ExportJobDTO;
+import com.servosys.dto.ExportRequest;
+import com.servosys.export.StudentExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bulk exports: POST starts a job, GET reports its progress, GET .../file
+ * downloads the finished file and DELETE cancels the job or removes its file.
+ */
+@RestController
+@RequestMapping("/api/v1/students/exports")
+@RequiredArgsConstructor
+@Slf4j
+public class StudentExportController {
+    
+    // Tomcat's sendfile contract (org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    
+    private final StudentExportService exportService;
+    
+    // Start an Export Job
+    @PostMapping
+    public ResponseEntity<ApiResponse<ExportJobDTO>> startExport(@Valid @RequestBody ExportRequest exportRequest) {
+        log.debug("Starting {} export", exportRequest.getFormat());
+        ExportJobDTO job = exportService.submit(exportRequest);
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/api/v1/students/exports/" + job.getId()))
+                .body(ApiResponse.accepted(job, "Export started"));
+    }
+    
+    // Get Export Job Status and Progress
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ApiResponse<ExportJobDTO>> getExport(@PathVariable String jobId) {
+        log.debug("Getting export job: {}", jobId);
+        ExportJobDTO job = exportService.getJob(jobId);
+        return ResponseEntity.ok(ApiResponse.success(job, "Export job retrieved successfully"));
+    }
+    
+    // Download a Finished Export. Tomcat sends the file itself with FileChannel.transferTo once the
+    // handler returns (kernel sendfile, no copy through the heap); other containers get a
+    // transferTo into the response channel.
+    @GetMapping("/{jobId}/file")
+    public ResponseEntity<StreamingResponseBody> downloadExport(@PathVariable String jobId,
+                                                                HttpServletRequest request) {
+        log.debug("Downloading export: {}", jobId);
+        StudentExportService.ExportFile file = exportService.getFile(jobId);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(file.mediaType())
+                .contentLength(file.size())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.fileName()).build().toString());
+        
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, file.size());
+            return response.build();
+        }
+        StreamingResponseBody body = out -> {
+            try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(out);
+                for (long position = 0; position < file.size(); ) {
+                    position += channel.transferTo(position, file.size() - position, target);
+                }
+            }
+        };
+        return response.body(body);
+    }
+    
+    // Cancel an Export or Delete its File
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<ApiResponse<Void>> deleteExport(@PathVariable String jobId) {
+        log.debug("Deleting export: {}", jobId);
+        exportService.delete(jobId);
+        return ResponseEntity.ok(ApiResponse.success("Export deleted successfully"));
+    }
+}
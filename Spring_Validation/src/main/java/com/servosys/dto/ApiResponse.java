@@ -24,6 +24,10 @@ public class ApiResponse<T> {
         return new ApiResponse<>(true, message, data, LocalDateTime.now(), 201);
     }
     
+    public static <T> ApiResponse<T> accepted(T data, String message) {
+        return new ApiResponse<>(true, message, data, LocalDateTime.now(), 202);
+    }
+    
     public static ApiResponse<Void> success(String message) {
         return new ApiResponse<>(true, message, null, LocalDateTime.now(), 200);
     }
@@ -0,0 +1,28 @@
+package com.servosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+    private int index;
+    private boolean success;
+    private Long id;
+    private String email;
+    private String message;
+    
+    public static BatchItemResult created(int index, Long id, String email) {
+        return new BatchItemResult(index, true, id, email, "Student created successfully");
+    }
+    
+    public static BatchItemResult updated(int index, Long id, String email) {
+        return new BatchItemResult(index, true, id, email, "Student updated successfully");
+    }
+    
+    public static BatchItemResult failed(int index, Long id, String email, String message) {
+        return new BatchItemResult(index, false, id, email, message);
+    }
+}
@@ -0,0 +1,33 @@
+package com.servosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is the id of the
+ * last item on the page and is passed back as {@code after} to fetch the next one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private Long nextCursor;
+    private boolean hasMore;
+    private int size;
+    
+    /**
+     * Builds a page from a slice fetched with {@code limit + 1} rows; the extra
+     * row only tells us whether another page exists and is dropped.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, Long> idOf) {
+        boolean hasMore = rows.size() > limit;
+        List<T> items = hasMore ? rows.subList(0, limit) : rows;
+        Long nextCursor = items.isEmpty() ? null : idOf.apply(items.get(items.size() - 1));
+        return new CursorPage<>(items, hasMore ? nextCursor : null, hasMore, items.size());
+    }
+}
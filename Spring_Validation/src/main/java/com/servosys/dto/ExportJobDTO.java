@@ -0,0 +1,30 @@
+package com.servosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of an export job. totalRows is counted when the job starts and rows
+ * added during the export can run past it, so progress (a percentage) stays
+ * below 100 until the file is complete.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJobDTO {
+    private String id;
+    private String status;
+    private String format;
+    private ExportRequest filters;
+    private Long totalRows;
+    private long rowsWritten;
+    private long bytesWritten;
+    private Integer progress;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
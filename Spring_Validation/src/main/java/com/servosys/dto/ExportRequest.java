@@ -0,0 +1,39 @@
+package com.servosys.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Body of POST /api/v1/students/exports: the file format and optional
+ * filters. Unset filters match every student.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportRequest {
+    
+    @Pattern(regexp = "csv|ndjson", message = "Format must be csv or ndjson")
+    private String format = "csv";
+    
+    private String department;
+    
+    private Boolean active;
+    
+    @Min(value = 1, message = "Year must be at least 1")
+    @Max(value = 5, message = "Year cannot be more than 5")
+    private Integer year;
+    
+    @DecimalMin(value = "0.0", message = "Minimum CGPA must be at least 0.0")
+    @DecimalMax(value = "10.0", message = "Minimum CGPA cannot be more than 10.0")
+    private Double minCgpa;
+    
+    @DecimalMin(value = "0.0", message = "Maximum CGPA must be at least 0.0")
+    @DecimalMax(value = "10.0", message = "Maximum CGPA cannot be more than 10.0")
+    private Double maxCgpa;
+}
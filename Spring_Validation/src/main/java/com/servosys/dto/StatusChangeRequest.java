@@ -0,0 +1,25 @@
+package com.servosys.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Selects the students for a bulk activate/deactivate: either explicit ids
+ * or a whole year of study, never both.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusChangeRequest {
+    
+    private Set<Long> ids;
+    
+    @Min(value = 1, message = "Year must be at least 1")
+    @Max(value = 5, message = "Year cannot be more than 5")
+    private Integer year;
+}
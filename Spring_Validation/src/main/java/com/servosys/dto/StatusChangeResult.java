@@ -0,0 +1,21 @@
+package com.servosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk activate/deactivate. Only students whose status actually
+ * changed are counted and listed; ids that were missing or already in the
+ * target state are not. A change by year only reports the count and leaves
+ * {@code ids} null.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusChangeResult {
+    private int changed;
+    private List<Long> ids;
+}
@@ -0,0 +1,21 @@
+package com.servosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A batch of the change feed. Unlike {@link CursorPage}, {@code cursor} is
+ * always set (to the request's {@code since} when the batch is empty), so a
+ * consumer can store it and poll again with it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentChangeBatch {
+    private List<StudentChangeDTO> changes;
+    private long cursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,27 @@
+package com.servosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the change feed. {@code sequence} orders the feed and is the
+ * cursor to resume after; {@code student} is the state after the change and
+ * is null for DELETED. YEAR_ACTIVATED and YEAR_DEACTIVATED entries cover a
+ * whole year of study: {@code studentId} and {@code student} are null and
+ * {@code year} and {@code changed} say which year and how many students.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentChangeDTO {
+    private long sequence;
+    private String type;
+    private Long studentId;
+    private StudentDTO student;
+    private LocalDateTime occurredAt;
+    private Integer year;
+    private Integer changed;
+}
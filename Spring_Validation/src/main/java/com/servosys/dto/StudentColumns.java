@@ -0,0 +1,74 @@
+package com.servosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented form of a list of students: each field name appears once and
+ * row {@code i} is the {@code i}-th entry of every column. Departments are
+ * dictionary-encoded: {@code department[i]} indexes {@code departments}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentColumns {
+    private int count;
+    private long[] id;
+    private List<String> firstName;
+    private List<String> lastName;
+    private List<String> email;
+    private List<String> phoneNumber;
+    private List<LocalDate> dateOfBirth;
+    private List<String> departments;
+    private int[] department;
+    private List<Integer> year;
+    private List<Double> cgpa;
+    private List<Boolean> isActive;
+    
+    public static StudentColumns of(List<StudentDTO> students) {
+        int n = students.size();
+        StudentColumns columns = new StudentColumns(n, new long[n], new ArrayList<>(n), new ArrayList<>(n),
+                new ArrayList<>(n), new ArrayList<>(n), new ArrayList<>(n), null, new int[n],
+                new ArrayList<>(n), new ArrayList<>(n), new ArrayList<>(n));
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            StudentDTO student = students.get(i);
+            columns.id[i] = student.getId();
+            columns.firstName.add(student.getFirstName());
+            columns.lastName.add(student.getLastName());
+            columns.email.add(student.getEmail());
+            columns.phoneNumber.add(student.getPhoneNumber());
+            columns.dateOfBirth.add(student.getDateOfBirth());
+            columns.department[i] = dictionary.computeIfAbsent(student.getDepartment(), d -> dictionary.size());
+            columns.year.add(student.getYear());
+            columns.cgpa.add(student.getCgpa());
+            columns.isActive.add(student.getIsActive());
+        }
+        columns.departments = new ArrayList<>(dictionary.keySet());
+        return columns;
+    }
+    
+    /**
+     * {@link CursorPage} with its items in columnar form.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Page {
+        private StudentColumns items;
+        private Long nextCursor;
+        private boolean hasMore;
+        private int size;
+        
+        public static Page of(CursorPage<StudentDTO> page) {
+            return new Page(StudentColumns.of(page.getItems()), page.getNextCursor(), page.isHasMore(), page.getSize());
+        }
+    }
+}
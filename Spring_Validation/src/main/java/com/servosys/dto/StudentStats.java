@@ -0,0 +1,25 @@
+package com.servosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Aggregates for one group of students. {@code department} and {@code year}
+ * are null when the group spans all of them. {@code cgpaHistogram[i]} counts
+ * students with a CGPA in [i, i + 1); the last bucket also holds 10.0.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentStats {
+    private String department;
+    private Integer year;
+    private long count;
+    private long active;
+    private long inactive;
+    private Double averageCgpa;
+    private Double minCgpa;
+    private Double maxCgpa;
+    private long[] cgpaHistogram;
+}
@@ -0,0 +1,20 @@
+package com.servosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response of GET /api/v1/students/stats: the overall totals, one row per
+ * department and one row per department/year cohort, sorted by name and year.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentStatsReport {
+    private StudentStats overall;
+    private List<StudentStats> departments;
+    private List<StudentStats> cohorts;
+}
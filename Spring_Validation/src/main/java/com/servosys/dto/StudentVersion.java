@@ -0,0 +1,19 @@
+package com.servosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The validators of one student row: the optimistic-locking version, which
+ * backs ETag/If-Match, and the last update time, which backs Last-Modified.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentVersion {
+    private long version;
+    private LocalDateTime updatedAt;
+}
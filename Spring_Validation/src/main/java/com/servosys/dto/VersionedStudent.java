@@ -0,0 +1,29 @@
+package com.servosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A student together with the validators of the same row, read or written in
+ * one statement, so a response's ETag and Last-Modified always describe its
+ * body and need no second read.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionedStudent {
+    private StudentDTO student;
+    private StudentVersion version;
+    
+    // JPQL constructor expressions cannot nest, so projections pass the columns flat
+    public VersionedStudent(Long id, String firstName, String lastName, String email, String phoneNumber,
+                            LocalDate dateOfBirth, String department, Integer year, Double cgpa, Boolean isActive,
+                            long version, LocalDateTime updatedAt) {
+        this(new StudentDTO(id, firstName, lastName, email, phoneNumber, dateOfBirth, department, year, cgpa, isActive),
+                new StudentVersion(version, updatedAt));
+    }
+}
@@ -0,0 +1,20 @@
+package com.servosys.event;
+
+import com.servosys.dto.StudentDTO;
+import lombok.Value;
+
+/**
+ * Published by the service layer for every student mutation, inside the
+ * mutating transaction. {@code before} is null for creates and {@code after}
+ * is null for deletes.
+ */
+@Value
+public class StudentChangedEvent {
+    
+    public enum Type { CREATED, UPDATED, DELETED, ACTIVATED, DEACTIVATED }
+    
+    Type type;
+    Long studentId;
+    StudentDTO before;
+    StudentDTO after;
+}
@@ -0,0 +1,16 @@
+package com.servosys.event;
+
+import lombok.Value;
+
+/**
+ * Published instead of per-student {@link StudentChangedEvent}s when a whole
+ * year of study is activated or deactivated in one statement. It carries no
+ * before/after states: listeners that keep derived state rebuild or drop it.
+ */
+@Value
+public class StudentYearStatusChangedEvent {
+    
+    Integer year;
+    boolean active;
+    int changed;
+}
@@ -1,7 +1,11 @@
 package com.servosys.exception;
 
+/**
+ * A create that collides with an existing resource. Part of normal request
+ * flow, so no stack trace is captured.
+ */
 public class DuplicateResourceException extends RuntimeException {
     public DuplicateResourceException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
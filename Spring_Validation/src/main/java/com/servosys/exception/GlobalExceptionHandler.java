@@ -36,26 +36,67 @@ package com.servosys.exception;
 
 import com.servosys.dto.ApiResponse;
 import com.servosys.dto.ErrorResponse;
+import com.servosys.logging.LogSampler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestControllerAdvice
 @Slf4j
 public class GlobalExceptionHandler {
     
+    private static final String VALIDATION_FAILED = "Validation failed";
+    
+    // One student.exceptions counter per handler below
+    private final Counter notFoundCount;
+    private final Counter validationCount;
+    private final Counter argumentNotValidCount;
+    private final Counter preconditionFailedCount;
+    private final Counter conflictCount;
+    private final Counter rateLimitedCount;
+    private final Counter overloadedCount;
+    private final Counter unexpectedCount;
+    
+    // 4xx are the client's mistake and a bad client can produce them as fast as
+    // we can answer, so their log lines are sampled; 5xx are always logged
+    private final LogSampler clientErrorLog;
+    
+    public GlobalExceptionHandler(MeterRegistry registry,
+                                  @Value("${app.logging.client-errors-per-second:20}") int clientErrorsPerSecond) {
+        this.clientErrorLog = new LogSampler(clientErrorsPerSecond);
+        this.notFoundCount = exceptionCounter(registry, "not_found");
+        this.validationCount = exceptionCounter(registry, "validation");
+        this.argumentNotValidCount = exceptionCounter(registry, "argument_not_valid");
+        this.preconditionFailedCount = exceptionCounter(registry, "precondition_failed");
+        this.conflictCount = exceptionCounter(registry, "conflict");
+        this.rateLimitedCount = exceptionCounter(registry, "rate_limited");
+        this.overloadedCount = exceptionCounter(registry, "overloaded");
+        this.unexpectedCount = exceptionCounter(registry, "unexpected");
+    }
+    
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ApiResponse<Void>> handleResourceNotFoundException(
             ResourceNotFoundException ex) {
-        log.error("Resource not found: {}", ex.getMessage());
+        notFoundCount.increment();
+        logClientError("Resource not found: {}", ex.getMessage());
         return ResponseEntity
                 .status(HttpStatus.NOT_FOUND)
                 .body(ApiResponse.error(ex.getMessage(), HttpStatus.NOT_FOUND.value()));
@@ -64,7 +105,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(ValidationException.class)
     public ResponseEntity<ApiResponse<Void>> handleValidationException(
             ValidationException ex) {
-        log.error("Validation error: {}", ex.getMessage());
+        validationCount.increment();
+        logClientError("Validation error: {}", ex.getMessage());
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
                 .body(ApiResponse.error(ex.getMessage(), HttpStatus.BAD_REQUEST.value()));
@@ -72,18 +114,27 @@ public class GlobalExceptionHandler {
     
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationExceptions(
-            MethodArgumentNotValidException ex, WebRequest request) {
-        Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach((error) -> {
-            String fieldName = ((FieldError) error).getField();
-            String errorMessage = error.getDefaultMessage();
-            errors.put(fieldName, errorMessage);
-        });
+            MethodArgumentNotValidException ex, HttpServletRequest request) {
+        argumentNotValidCount.increment();
+        BindingResult result = ex.getBindingResult();
+        List<FieldError> fieldErrors = result.getFieldErrors();
+        List<ObjectError> globalErrors = result.getGlobalErrors();
+        Map<String, String> errors = new HashMap<>((fieldErrors.size() + globalErrors.size()) * 4 / 3 + 1);
+        for (FieldError error : fieldErrors) {
+            errors.put(error.getField(), error.getDefaultMessage());
+        }
+        // Class-level constraints have no field; report them under the object name
+        for (ObjectError error : globalErrors) {
+            errors.put(error.getObjectName(), error.getDefaultMessage());
+        }
+        logClientError("Request body validation failed: {}", errors.keySet());
         
+        // Same "uri=" form WebRequest.getDescription(false) produced, without
+        // building the servlet request wrapper for it
         ErrorResponse errorResponse = new ErrorResponse(
                 HttpStatus.BAD_REQUEST.value(),
-                "Validation failed",
-                request.getDescription(false)
+                VALIDATION_FAILED,
+                "uri=" + request.getRequestURI()
         );
         errorResponse.setValidationErrors(errors);
         
@@ -92,9 +143,56 @@ public class GlobalExceptionHandler {
                 .body(errorResponse);
     }
     
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePreconditionFailedException(
+            PreconditionFailedException ex) {
+        preconditionFailedCount.increment();
+        logClientError("Precondition failed: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(ApiResponse.error(ex.getMessage(), HttpStatus.PRECONDITION_FAILED.value()));
+    }
+    
+    // Another transaction updated or deleted the row between our read and our flush (@Version)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex) {
+        conflictCount.increment();
+        logClientError("Concurrent update: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error("Student was modified concurrently; re-read it and retry",
+                        HttpStatus.CONFLICT.value()));
+    }
+    
+    // Load shedding: expected under pressure, so counted rather than logged. The content
+    // type is preset so streaming (NDJSON) endpoints can be answered with a JSON error too.
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiResponse<Void>> handleTooManyRequestsException(
+            TooManyRequestsException ex) {
+        rateLimitedCount.increment();
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ApiResponse.error(ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS.value()));
+    }
+    
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleServiceOverloadedException(
+            ServiceOverloadedException ex) {
+        overloadedCount.increment();
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ApiResponse.error(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE.value()));
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Void>> handleGlobalException(
             Exception ex, WebRequest request) {
+        unexpectedCount.increment();
         log.error("Unexpected error occurred: {}", ex.getMessage(), ex);
         return ResponseEntity
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -103,4 +201,19 @@ public class GlobalExceptionHandler {
                     HttpStatus.INTERNAL_SERVER_ERROR.value()
                 ));
     }
+    
+    private void logClientError(String format, Object detail) {
+        long suppressed = clientErrorLog.tryAcquire();
+        if (suppressed > 0) {
+            log.warn(format + " ({} similar suppressed)", detail, suppressed);
+        } else if (suppressed == 0) {
+            log.warn(format, detail);
+        }
+    }
+    
+    private static Counter exceptionCounter(MeterRegistry registry, String handler) {
+        return Counter.builder("student.exceptions")
+                .tag("handler", handler)
+                .register(registry);
+    }
 }
\ No newline at end of file
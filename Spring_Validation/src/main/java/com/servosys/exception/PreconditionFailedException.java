@@ -0,0 +1,11 @@
+package com.servosys.exception;
+
+/**
+ * A conditional write whose If-Match no longer matches the row (412). The
+ * client is expected to re-read and retry, so no stack trace is captured.
+ */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -8,12 +8,16 @@
 
 package com.servosys.exception;
 
+/**
+ * A lookup that found nothing (404). Part of normal request flow, so no stack
+ * trace is captured.
+ */
 public class ResourceNotFoundException extends RuntimeException {
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
     
     public ResourceNotFoundException(String resourceName, String fieldName, Object fieldValue) {
-        super(String.format("%s not found with %s : '%s'", resourceName, fieldName, fieldValue));
+        this(resourceName + " not found with " + fieldName + " : '" + fieldValue + "'");
     }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.servosys.exception;
+
+/**
+ * Too many requests of one class are already in flight (503). Thrown on the
+ * load-shedding path, so no stack trace is captured.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,19 @@
+package com.servosys.exception;
+
+/**
+ * A client went over its rate limit (429). Thrown on the load-shedding path,
+ * so no stack trace is captured.
+ */
+public class TooManyRequestsException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,8 +1,11 @@
 package com.servosys.exception;
 
-
+/**
+ * A request the service rejects (400). Part of normal request flow, so no
+ * stack trace is captured.
+ */
 public class ValidationException extends RuntimeException {
     public ValidationException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.servosys.export;
+
+import org.springframework.http.MediaType;
+
+/**
+ * File formats an export can be written in. Parquet is not offered: its
+ * writer needs the Hadoop client libraries, which this service does not
+ * otherwise carry; NDJSON keeps the typed values for programmatic consumers.
+ */
+public enum ExportFormat {
+    
+    CSV("csv", new MediaType("text", "csv")),
+    NDJSON("ndjson", MediaType.APPLICATION_NDJSON);
+    
+    private final String extension;
+    private final MediaType mediaType;
+    
+    ExportFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+    
+    public static ExportFormat of(String name) {
+        return name == null ? CSV : valueOf(name.toUpperCase());
+    }
+    
+    public String extension() {
+        return extension;
+    }
+    
+    public MediaType mediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,110 @@
+package com.servosys.export;
+
+import com.servosys.dto.ExportJobDTO;
+import com.servosys.dto.ExportRequest;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One export and its progress. Only the export worker writes the progress
+ * fields; request threads read them through {@link #toDTO()}.
+ */
+class ExportJob {
+    
+    enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+    
+    private final String id = UUID.randomUUID().toString();
+    private final ExportFormat format;
+    private final ExportRequest filters;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    
+    private volatile Status status = Status.QUEUED;
+    private volatile Long totalRows;
+    private volatile long rowsWritten;
+    private volatile long bytesWritten;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+    private volatile boolean cancelled;
+    
+    ExportJob(ExportFormat format, ExportRequest filters) {
+        this.format = format;
+        this.filters = filters;
+    }
+    
+    String id() {
+        return id;
+    }
+    
+    ExportFormat format() {
+        return format;
+    }
+    
+    ExportRequest filters() {
+        return filters;
+    }
+    
+    Status status() {
+        return status;
+    }
+    
+    LocalDateTime finishedAt() {
+        return finishedAt;
+    }
+    
+    boolean isCancelled() {
+        return cancelled;
+    }
+    
+    void cancel() {
+        cancelled = true;
+    }
+    
+    String fileName() {
+        return id + "." + format.extension();
+    }
+    
+    void start(long totalRows) {
+        this.totalRows = totalRows;
+        this.startedAt = LocalDateTime.now();
+        this.status = Status.RUNNING;
+    }
+    
+    void progress(long rowsWritten, long bytesWritten) {
+        this.rowsWritten = rowsWritten;
+        this.bytesWritten = bytesWritten;
+    }
+    
+    void complete(long bytesWritten) {
+        this.bytesWritten = bytesWritten;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.COMPLETED;
+    }
+    
+    void fail(String error) {
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+    
+    ExportJobDTO toDTO() {
+        Status current = status;
+        Long total = totalRows;
+        long rows = rowsWritten;
+        Integer progress = switch (current) {
+            case QUEUED -> 0;
+            case COMPLETED -> 100;
+            case FAILED -> null;
+            // Rows added since the count can take the export past its estimate
+            case RUNNING -> total == null || total == 0 ? 0 : (int) Math.min(99, rows * 100 / total);
+        };
+        return new ExportJobDTO(id, current.name().toLowerCase(), format.extension(), filters, total,
+                rows, bytesWritten, progress, createdAt, startedAt, finishedAt, error);
+    }
+    
+    Path file(Path directory) {
+        return directory.resolve(fileName());
+    }
+}
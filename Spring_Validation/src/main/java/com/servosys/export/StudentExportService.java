@@ -0,0 +1,373 @@
+package com.servosys.export;
+
+import com.servosys.dto.ExportJobDTO;
+import com.servosys.dto.ExportRequest;
+import com.servosys.dto.StudentDTO;
+import com.servosys.exception.ResourceNotFoundException;
+import com.servosys.exception.ServiceOverloadedException;
+import com.servosys.exception.ValidationException;
+import com.servosys.repository.StudentRepository;
+import com.servosys.service.DepartmentDictionary;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk exports of students to files on local disk, produced by one background
+ * worker so an extract never holds a request thread. Rows are read by keyset
+ * in chunks of {@code app.exports.chunk-size}, each in its own short read-only
+ * transaction, and written through one reused buffer, so memory use does not
+ * depend on the size of the export and no connection is held between chunks.
+ * Each row is exported as of the chunk that read it.
+ * <p>
+ * Jobs live in memory: finished files are kept for {@code app.exports.retention}
+ * and files left by an earlier run are removed at startup.
+ */
+@Service
+@Slf4j
+public class StudentExportService {
+    
+    private static final String CSV_HEADER =
+            "id,firstName,lastName,email,phoneNumber,dateOfBirth,department,year,cgpa,isActive\r\n";
+    private static final byte[] NEWLINE = {'\n'};
+    private static final String PART_SUFFIX = ".part";
+    private static final Duration PURGE_INTERVAL = Duration.ofMinutes(10);
+    private static final long QUEUE_FULL_RETRY_AFTER_SECONDS = 60;
+    
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final DepartmentDictionary departmentDictionary;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int chunkSize;
+    private final int maxQueued;
+    private final Duration retention;
+    
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "student-export");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Worker thread only
+    private final ByteBuffer writeBuffer;
+    private final StringBuilder row = new StringBuilder(256);
+    
+    public StudentExportService(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                DepartmentDictionary departmentDictionary, ObjectMapper objectMapper,
+                                @Value("${app.exports.dir:${java.io.tmpdir}/student-exports}") Path directory,
+                                @Value("${app.exports.chunk-size:1000}") int chunkSize,
+                                @Value("${app.exports.buffer-size:65536}") int bufferSize,
+                                @Value("${app.exports.max-queued:10}") int maxQueued,
+                                @Value("${app.exports.retention:PT24H}") Duration retention) {
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.departmentDictionary = departmentDictionary;
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.chunkSize = chunkSize;
+        this.maxQueued = maxQueued;
+        this.retention = retention;
+        this.writeBuffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+    
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(directory);
+        // No job from an earlier run can be downloaded any more
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*-*-*-*-*.{csv,ndjson,csv.part,ndjson.part}")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+        worker.scheduleWithFixedDelay(this::purge, PURGE_INTERVAL.toMinutes(), PURGE_INTERVAL.toMinutes(), TimeUnit.MINUTES);
+    }
+    
+    /**
+     * Queues an export and returns its job; 503 if {@code app.exports.max-queued}
+     * exports are already waiting.
+     */
+    public ExportJobDTO submit(ExportRequest request) {
+        if (request.getMinCgpa() != null && request.getMaxCgpa() != null
+                && request.getMinCgpa() > request.getMaxCgpa()) {
+            throw new ValidationException("Minimum CGPA cannot be more than maximum CGPA");
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            throw new ServiceOverloadedException("Too many exports queued", QUEUE_FULL_RETRY_AFTER_SECONDS);
+        }
+        ExportJob job = new ExportJob(ExportFormat.of(request.getFormat()), request);
+        jobs.put(job.id(), job);
+        worker.execute(() -> run(job));
+        log.info("Export {} queued ({})", job.id(), job.format().extension());
+        return job.toDTO();
+    }
+    
+    public ExportJobDTO getJob(String id) {
+        return job(id).toDTO();
+    }
+    
+    /**
+     * The finished file of a completed job; 404 while the job is still running or if it failed.
+     */
+    public ExportFile getFile(String id) {
+        ExportJob job = job(id);
+        Path file = job.file(directory);
+        if (job.status() != ExportJob.Status.COMPLETED || !Files.exists(file)) {
+            throw new ResourceNotFoundException("Export file", "job", id);
+        }
+        try {
+            return new ExportFile(file, Files.size(file), job.fileName(), job.format().mediaType());
+        } catch (IOException e) {
+            throw new ResourceNotFoundException("Export file", "job", id);
+        }
+    }
+    
+    /**
+     * Forgets a job and deletes its file; a queued or running export is
+     * cancelled and its partial file removed by the worker.
+     */
+    public void delete(String id) {
+        ExportJob job = jobs.remove(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Export job", "id", id);
+        }
+        job.cancel();
+        deleteQuietly(job.file(directory));
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+    
+    private ExportJob job(String id) {
+        ExportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Export job", "id", id);
+        }
+        return job;
+    }
+    
+    private void run(ExportJob job) {
+        queued.decrementAndGet();
+        if (job.isCancelled()) {
+            return;
+        }
+        Path part = directory.resolve(job.fileName() + PART_SUFFIX);
+        try {
+            Filter filter = filter(job.filters());
+            long total = filter == null ? 0 : readOnlyTransaction.execute(status -> count(filter));
+            job.start(total);
+            log.info("Export {} started: {} students", job.id(), total);
+            
+            try (ExportFileWriter writer = new ExportFileWriter(
+                    FileChannel.open(part, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), writeBuffer)) {
+                if (job.format() == ExportFormat.CSV) {
+                    writer.write(CSV_HEADER);
+                }
+                long rows = 0;
+                long afterId = 0;
+                List<StudentDTO> chunk = List.of();
+                do {
+                    if (job.isCancelled()) {
+                        break;
+                    }
+                    if (filter != null) {
+                        long cursor = afterId;
+                        chunk = readOnlyTransaction.execute(status -> fetch(filter, cursor));
+                    }
+                    for (StudentDTO student : chunk) {
+                        writeRow(writer, job.format(), student);
+                    }
+                    rows += chunk.size();
+                    job.progress(rows, writer.bytesWritten());
+                    if (!chunk.isEmpty()) {
+                        afterId = chunk.get(chunk.size() - 1).getId();
+                    }
+                } while (chunk.size() == chunkSize);
+            }
+            
+            if (job.isCancelled()) {
+                deleteQuietly(part);
+                log.info("Export {} cancelled", job.id());
+                return;
+            }
+            Path file = job.file(directory);
+            Files.move(part, file, StandardCopyOption.ATOMIC_MOVE);
+            long size = Files.size(file);
+            job.complete(size);
+            // Deleted while the file was being moved into place
+            if (job.isCancelled()) {
+                deleteQuietly(file);
+            }
+            log.info("Export {} completed: {} bytes", job.id(), size);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Export {} failed", job.id(), e);
+            job.fail(e.getMessage());
+            deleteQuietly(part);
+        }
+    }
+    
+    private void writeRow(ExportFileWriter writer, ExportFormat format, StudentDTO student) throws IOException {
+        switch (format) {
+            case CSV -> writer.write(csvRow(student));
+            case NDJSON -> {
+                writer.write(objectMapper.writeValueAsBytes(student));
+                writer.write(NEWLINE);
+            }
+        }
+    }
+    
+    private StringBuilder csvRow(StudentDTO student) {
+        row.setLength(0);
+        row.append(student.getId()).append(',');
+        csvField(student.getFirstName()).append(',');
+        csvField(student.getLastName()).append(',');
+        csvField(student.getEmail()).append(',');
+        csvField(student.getPhoneNumber()).append(',');
+        csvField(student.getDateOfBirth()).append(',');
+        csvField(student.getDepartment()).append(',');
+        csvField(student.getYear()).append(',');
+        csvField(student.getCgpa()).append(',');
+        csvField(student.getIsActive()).append("\r\n");
+        return row;
+    }
+    
+    // RFC 4180: fields holding a separator, quote or line break are quoted, with quotes doubled
+    private StringBuilder csvField(Object value) {
+        if (value == null) {
+            return row;
+        }
+        String text = value.toString();
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            return row.append(text);
+        }
+        row.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            row.append(c);
+            if (c == '"') {
+                row.append('"');
+            }
+        }
+        return row.append('"');
+    }
+    
+    // Null when the filters cannot match any student
+    private Filter filter(ExportRequest request) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (request.getDepartment() != null) {
+            if (departmentDictionary.find(request.getDepartment()) == null) {
+                return null;
+            }
+            conditions.add("s.department = :department");
+            parameters.put("department", request.getDepartment());
+        }
+        if (request.getActive() != null) {
+            conditions.add("s.isActive = :active");
+            parameters.put("active", request.getActive());
+        }
+        if (request.getYear() != null) {
+            conditions.add("s.year = :year");
+            parameters.put("year", request.getYear());
+        }
+        if (request.getMinCgpa() != null) {
+            conditions.add("s.cgpa >= :minCgpa");
+            parameters.put("minCgpa", request.getMinCgpa());
+        }
+        if (request.getMaxCgpa() != null) {
+            conditions.add("s.cgpa <= :maxCgpa");
+            parameters.put("maxCgpa", request.getMaxCgpa());
+        }
+        return new Filter(conditions, parameters);
+    }
+    
+    private long count(Filter filter) {
+        TypedQuery<Long> query = entityManager.createQuery(
+                "SELECT COUNT(s) FROM Student s" + filter.where(), Long.class);
+        filter.parameters().forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+    
+    // Keyset chunk in id order: the department and status filters are served by their (column, id) indexes
+    private List<StudentDTO> fetch(Filter filter, long afterId) {
+        TypedQuery<StudentDTO> query = entityManager.createQuery(StudentRepository.SELECT_DTO
+                + filter.where("s.id > :afterId") + " ORDER BY s.id", StudentDTO.class);
+        filter.parameters().forEach(query::setParameter);
+        return query.setParameter("afterId", afterId)
+                .setMaxResults(chunkSize)
+                .getResultList();
+    }
+    
+    private void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            LocalDateTime finishedAt = job.finishedAt();
+            if (finishedAt == null || finishedAt.isAfter(cutoff)) {
+                return false;
+            }
+            deleteQuietly(job.file(directory));
+            return true;
+        });
+    }
+    
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}", file, e);
+        }
+    }
+    
+    private record Filter(List<String> conditions, Map<String, Object> parameters) {
+        
+        String where(String... extra) {
+            List<String> all = new ArrayList<>(conditions);
+            all.addAll(List.of(extra));
+            return all.isEmpty() ? "" : " WHERE " + String.join(" AND ", all);
+        }
+    }
+    
+    /**
+     * A finished export file, for the download endpoint.
+     */
+    public record ExportFile(Path path, long size, String fileName, MediaType mediaType) {
+    }
+}
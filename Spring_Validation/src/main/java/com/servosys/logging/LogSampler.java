@@ -0,0 +1,45 @@
+package com.servosys.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps a noisy log statement at a number of lines per second. Callers log only
+ * when {@link #tryAcquire()} returns a non-negative value, which is the number
+ * of lines dropped since the last one written. Lock-free; the count may be off
+ * by a few lines when windows roll over under contention.
+ */
+public class LogSampler {
+    
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    
+    private final int linesPerSecond;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger linesInWindow = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+    
+    public LogSampler(int linesPerSecond) {
+        this.linesPerSecond = linesPerSecond;
+    }
+    
+    /**
+     * Returns the number of suppressed lines to report with this one, or -1 if
+     * this line must be dropped.
+     */
+    public long tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+    
+    long tryAcquire(long now) {
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            linesInWindow.set(0);
+        }
+        if (linesInWindow.incrementAndGet() <= linesPerSecond) {
+            return suppressed.getAndSet(0);
+        }
+        suppressed.incrementAndGet();
+        return -1;
+    }
+}
@@ -0,0 +1,69 @@
+package com.servosys.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tags every request with a request id (taken from {@code X-Request-Id} or
+ * generated), exposes it through the MDC for every log line written while the
+ * request runs, and writes a single summary line with status and timing.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class RequestLoggingFilter extends OncePerRequestFilter {
+    
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String SQL_TRACE_HEADER = "X-Debug-Sql";
+    
+    static final String MDC_REQUEST_ID = "requestId";
+    
+    private final boolean sqlTraceAllowed;
+    
+    public RequestLoggingFilter(@Value("${app.logging.sql-trace-header-enabled:false}") boolean sqlTraceAllowed) {
+        this.sqlTraceAllowed = sqlTraceAllowed;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || requestId.isEmpty() || requestId.length() > 64) {
+            requestId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        MDC.put(MDC_REQUEST_ID, requestId);
+        if (sqlTraceAllowed && "true".equalsIgnoreCase(request.getHeader(SQL_TRACE_HEADER))) {
+            MDC.put(SqlTraceTurboFilter.MDC_KEY, "true");
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long durationMicros = (System.nanoTime() - start) / 1_000;
+            if (log.isInfoEnabled()) {
+                log.atInfo()
+                        .addKeyValue("method", request.getMethod())
+                        .addKeyValue("path", request.getRequestURI())
+                        .addKeyValue("status", response.getStatus())
+                        .addKeyValue("durationMicros", durationMicros)
+                        .log("{} {} -> {} in {} us", request.getMethod(), request.getRequestURI(),
+                                response.getStatus(), durationMicros);
+            }
+            MDC.remove(MDC_REQUEST_ID);
+            MDC.remove(SqlTraceTurboFilter.MDC_KEY);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.servosys.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Lets Hibernate's SQL and bind-parameter loggers through for a single request
+ * when {@link RequestLoggingFilter} has put {@code sqlTrace=true} in the MDC,
+ * regardless of the configured logger levels. Every other event is left to
+ * the normal level checks.
+ */
+public class SqlTraceTurboFilter extends TurboFilter {
+    
+    static final String MDC_KEY = "sqlTrace";
+    
+    private static final String SQL_LOGGER = "org.hibernate.SQL";
+    private static final String BIND_LOGGER = "org.hibernate.orm.jdbc.bind";
+    
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        String name = logger.getName();
+        if (!name.startsWith(SQL_LOGGER) && !name.startsWith(BIND_LOGGER)) {
+            return FilterReply.NEUTRAL;
+        }
+        return "true".equals(MDC.get(MDC_KEY)) ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,16 @@
+package com.servosys.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every SQL statement Hibernate prepares, including lazy loads and
+ * flushes that never pass through a repository method.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+    
+    @Override
+    public String inspect(String sql) {
+        RequestQueryStats.statementExecuted();
+        return sql;
+    }
+}
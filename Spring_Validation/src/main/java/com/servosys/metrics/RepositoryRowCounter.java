@@ -0,0 +1,43 @@
+package com.servosys.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+/**
+ * Adds the size of each repository result to the current request's row count.
+ * Scalars (counts, affected rows) are not rows; streams are consumed after the
+ * call returns and are not counted.
+ */
+public class RepositoryRowCounter implements MethodInterceptor {
+    
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        RequestQueryStats.rowsReturned(rowCount(result));
+        return result;
+    }
+    
+    private static int rowCount(Object result) {
+        if (result == null || result instanceof Number || result instanceof Boolean) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Iterable<?> || result instanceof BaseStream<?, ?>) {
+            return 0;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,78 @@
+package com.servosys.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many SQL statements and repository rows each API request used,
+ * as student.request.statements / student.request.rows summaries tagged with
+ * the HTTP method and route. A jump in either for a route points at an N+1 or
+ * an unbounded list. Streaming responses write their body on another thread
+ * after this filter returns and are not recorded.
+ */
+@Component
+@ConditionalOnProperty(name = "app.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    
+    private static final String API_PREFIX = "/api/";
+    
+    private final MeterRegistry registry;
+    private final Map<String, Summaries> summaries = new ConcurrentHashMap<>();
+    
+    public RequestMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(API_PREFIX);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestQueryStats.stop();
+            if (!request.isAsyncStarted()) {
+                Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                Summaries routeSummaries = summaries.computeIfAbsent(
+                        request.getMethod() + ' ' + (route != null ? route : "UNKNOWN"), this::summaries);
+                routeSummaries.statements().record(stats.getStatements());
+                routeSummaries.rows().record(stats.getRows());
+            }
+        }
+    }
+    
+    private Summaries summaries(String key) {
+        int space = key.indexOf(' ');
+        String method = key.substring(0, space);
+        String route = key.substring(space + 1);
+        return new Summaries(summary("student.request.statements", method, route),
+                summary("student.request.rows", method, route));
+    }
+    
+    private DistributionSummary summary(String name, String method, String route) {
+        return DistributionSummary.builder(name)
+                .tag("method", method)
+                .tag("uri", route)
+                .register(registry);
+    }
+    
+    private record Summaries(DistributionSummary statements, DistributionSummary rows) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.servosys.metrics;
+
+/**
+ * SQL statements and repository rows seen by the current request thread.
+ * Counting is a no-op outside a request (startup, schedulers, async bodies).
+ */
+public final class RequestQueryStats {
+    
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+    
+    private long statements;
+    private long rows;
+    
+    private RequestQueryStats() {
+    }
+    
+    static RequestQueryStats start() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+    
+    static void stop() {
+        CURRENT.remove();
+    }
+    
+    static void statementExecuted() {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+        }
+    }
+    
+    static void rowsReturned(int count) {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.rows += count;
+        }
+    }
+    
+    public long getStatements() {
+        return statements;
+    }
+    
+    public long getRows() {
+        return rows;
+    }
+}
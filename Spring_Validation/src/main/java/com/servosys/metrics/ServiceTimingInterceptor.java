@@ -0,0 +1,53 @@
+package com.servosys.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every method of a service interface into {@code <name>} timers tagged
+ * with the method and outcome. Timers are registered once up front, so a call
+ * costs a map lookup and two clock reads.
+ */
+public class ServiceTimingInterceptor implements MethodInterceptor {
+    
+    private final Map<Method, Timer> successTimers = new HashMap<>();
+    private final Map<Method, Timer> errorTimers = new HashMap<>();
+    
+    public ServiceTimingInterceptor(MeterRegistry registry, String name, Class<?> serviceInterface) {
+        for (Method method : serviceInterface.getMethods()) {
+            successTimers.put(method, timer(registry, name, method, "success"));
+            errorTimers.put(method, timer(registry, name, method, "error"));
+        }
+    }
+    
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Timer success = successTimers.get(invocation.getMethod());
+        if (success == null) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable ex) {
+            errorTimers.get(invocation.getMethod()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+    }
+    
+    private static Timer timer(MeterRegistry registry, String name, Method method, String outcome) {
+        return Timer.builder(name)
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
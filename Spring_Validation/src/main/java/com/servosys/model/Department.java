@@ -0,0 +1,25 @@
+package com.servosys.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One row of the department dictionary. Students store {@code id}; names are
+ * resolved through {@link com.servosys.service.DepartmentDictionary}.
+ */
+@Entity
+@Table(name = "departments")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Department {
+    
+    // A handful of rows, created once each: identity is simpler than a pooled sequence here
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    
+    @Column(name = "name", nullable = false, unique = true)
+    private String name;
+}
@@ -0,0 +1,50 @@
+package com.servosys.model;
+
+import com.servosys.service.DepartmentDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Stores {@link Student#getDepartment()} as its department_id. Query parameters
+ * compared with the attribute go through here as well, so
+ * {@code s.department = :department} filters on the integer column. A name
+ * that is not in the departments table binds as {@link #NO_DEPARTMENT}: it
+ * matches no row, and a write carrying it fails on the foreign key (writers
+ * call {@link DepartmentDictionary#resolve} first).
+ */
+@Converter
+public class DepartmentConverter implements AttributeConverter<String, Integer> {
+    
+    static final int NO_DEPARTMENT = -1;
+    
+    // Instantiated by Hibernate through Spring while the EntityManagerFactory is built,
+    // before the dictionary (which needs a repository) can exist
+    private final ObjectProvider<DepartmentDictionary> departments;
+    
+    public DepartmentConverter(ObjectProvider<DepartmentDictionary> departments) {
+        this.departments = departments;
+    }
+    
+    @Override
+    public Integer convertToDatabaseColumn(String department) {
+        if (department == null) {
+            return null;
+        }
+        Integer id = departments.getObject().find(department);
+        return id != null ? id : NO_DEPARTMENT;
+    }
+    
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        // The foreign key guarantees the row; the dictionary loads it through if it is new to us
+        String name = departments.getObject().nameOf(id);
+        if (name == null) {
+            throw new IllegalStateException("Unknown department id " + id);
+        }
+        return name;
+    }
+}
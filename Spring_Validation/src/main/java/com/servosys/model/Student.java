@@ -1,16 +1,28 @@
 package com.servosys.model;
 
+import com.servosys.util.NameNormalizer;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "students")
+// UPDATEs list only the columns that changed, so a one-field PATCH writes one field (plus updated_at and version)
+@DynamicUpdate
+// Indexes are created by the Flyway migrations; they are declared here so the mapping documents them
+@Table(name = "students", indexes = {
+        @Index(name = "idx_students_year_rank", columnList = "year_course, cgpa DESC, id"),
+        @Index(name = "idx_students_department_rank", columnList = "department_id, cgpa DESC, id"),
+        @Index(name = "idx_students_active_id", columnList = "is_active, id"),
+        @Index(name = "idx_students_department_id", columnList = "department_id, id"),
+        @Index(name = "idx_students_first_name_norm", columnList = "first_name_norm, id"),
+        @Index(name = "idx_students_last_name_norm", columnList = "last_name_norm, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,8 +31,10 @@ import java.time.LocalDate;
 @ToString
 public class Student {
     
+    // Pooled sequence ids let Hibernate batch inserts; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_seq")
+    @SequenceGenerator(name = "student_seq", sequenceName = "students_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "First name is required")
@@ -33,6 +47,15 @@ public class Student {
     @Column(name = "last_name", nullable = false)
     private String lastName;
     
+    // Lower-cased, accent-stripped copies kept for indexed prefix search
+    @Setter(AccessLevel.NONE)
+    @Column(name = "first_name_norm", length = 100)
+    private String firstNameNormalized;
+    
+    @Setter(AccessLevel.NONE)
+    @Column(name = "last_name_norm", length = 100)
+    private String lastNameNormalized;
+    
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
     @Column(name = "email", nullable = false, unique = true)
@@ -48,8 +71,10 @@ public class Student {
     @Column(name = "date_of_birth", nullable = false)
     private LocalDate dateOfBirth;
     
+    // A foreign key into the departments dictionary; the name is shared, not stored per row
     @NotBlank(message = "Department is required")
-    @Column(name = "department", nullable = false)
+    @Convert(converter = DepartmentConverter.class)
+    @Column(name = "department_id", nullable = false)
     private String department;
     
     @Min(value = 1, message = "Year must be at least 1")
@@ -73,4 +98,16 @@ public class Student {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+    
+    // Concurrent writers of the same row fail at flush instead of overwriting each other
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
+    @PrePersist
+    @PreUpdate
+    public void normalizeNames() {
+        this.firstNameNormalized = NameNormalizer.normalize(firstName);
+        this.lastNameNormalized = NameNormalizer.normalize(lastName);
+    }
 }
\ No newline at end of file
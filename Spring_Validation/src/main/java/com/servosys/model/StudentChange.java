@@ -0,0 +1,42 @@
+package com.servosys.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One committed student mutation in the change-feed outbox. {@code payload}
+ * is the StudentDTO after the change as JSON, null for deletes. A status change
+ * of a whole year is one row without a student id, whose payload holds the
+ * year and the number of students changed.
+ */
+@Entity
+@Table(name = "student_changes",
+       indexes = @Index(name = "idx_student_changes_occurred_at", columnList = "occurred_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentChange {
+    
+    // Also the feed cursor. Taken one at a time at insert, so ids of concurrent writers
+    // interleave in allocation order and a gap only lasts while a commit is in flight.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_change_seq")
+    @SequenceGenerator(name = "student_change_seq", sequenceName = "student_changes_seq", allocationSize = 1)
+    private Long id;
+    
+    @Column(name = "student_id")
+    private Long studentId;
+    
+    @Column(name = "change_type", nullable = false, length = 16)
+    private String type;
+    
+    @Column(name = "payload", length = 4000)
+    private String payload;
+    
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,42 @@
+package com.servosys.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * One row per distinct trigram of a student's normalized full name. The primary
+ * key (gram, student_id) doubles as the lookup index for infix search.
+ */
+@Entity
+@Table(name = "student_name_trigrams",
+       indexes = @Index(name = "idx_trigrams_student", columnList = "student_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentNameTrigram {
+    
+    @EmbeddedId
+    private Key id;
+    
+    public StudentNameTrigram(String gram, Long studentId) {
+        this.id = new Key(gram, studentId);
+    }
+    
+    @Embeddable
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        
+        @Column(name = "gram", length = 3, nullable = false)
+        private String gram;
+        
+        @Column(name = "student_id", nullable = false)
+        private Long studentId;
+    }
+}
@@ -0,0 +1,183 @@
+package com.servosys.replica;
+
+import com.servosys.repository.StudentChangeRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection pool for the read replica and its health. Replication lag is
+ * measured against the student_changes outbox, whose ids only grow: the
+ * primary's latest visible id is sampled on every check, and the replica is
+ * as far behind as the newest sample whose id it has already applied. The replica serves reads only while that lag, plus the age of the
+ * measurement, is within {@code app.datasource.replica.max-lag}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+@Slf4j
+public class ReadReplica {
+    
+    private static final String POSITION_SQL = "SELECT COALESCE(MAX(id), 0) FROM student_changes";
+    private static final long UNKNOWN_LAG = Long.MAX_VALUE;
+    // Bounds the sample history while the replica is stalled; by then it is long past max-lag anyway
+    private static final int MAX_SAMPLES = 1024;
+    
+    private final HikariDataSource pool;
+    private final StudentChangeRepository changeRepository;
+    private final long maxLagNanos;
+    
+    // Primary outbox positions, oldest first; only touched by the checker thread
+    private final Deque<Sample> primarySamples = new ArrayDeque<>();
+    private volatile Status status = new Status(false, UNKNOWN_LAG, System.nanoTime());
+    private final ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "student-replica-lag");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public ReadReplica(StudentChangeRepository changeRepository,
+                       ObjectProvider<MeterRegistry> meterRegistry,
+                       @Value("${app.datasource.replica.url}") String url,
+                       @Value("${app.datasource.replica.username:sa}") String username,
+                       @Value("${app.datasource.replica.password:}") String password,
+                       @Value("${app.datasource.replica.maximum-pool-size:10}") int maximumPoolSize,
+                       @Value("${app.datasource.replica.connection-timeout:PT1S}") Duration connectionTimeout,
+                       @Value("${spring.datasource.hikari.auto-commit:true}") boolean autoCommit,
+                       @Value("${app.datasource.replica.max-lag:PT5S}") Duration maxLag,
+                       @Value("${app.datasource.replica.lag-check-interval:PT1S}") Duration checkInterval,
+                       @Value("${app.datasource.replica.migrate:false}") boolean migrate,
+                       @Value("${spring.flyway.locations:classpath:db/migration}") String[] migrationLocations) {
+        this.changeRepository = changeRepository;
+        this.maxLagNanos = maxLag.toNanos();
+        
+        pool = new HikariDataSource();
+        pool.setPoolName("studentdb-replica");
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setMaximumPoolSize(maximumPoolSize);
+        pool.setConnectionTimeout(connectionTimeout.toMillis());
+        // Same auto-commit default as the primary, so the lazy proxy's cached settings apply to both
+        pool.setAutoCommit(autoCommit);
+        pool.setReadOnly(true);
+        // Start even if the replica is down; reads stay on the primary until a check succeeds
+        pool.setInitializationFailTimeout(-1);
+        
+        if (migrate) {
+            Flyway.configure().dataSource(url, username, password).locations(migrationLocations).load().migrate();
+        }
+        meterRegistry.ifAvailable(registry -> Gauge.builder("student.replica.lag", this, ReadReplica::lagSeconds)
+                .baseUnit("seconds")
+                .description("Measured replication lag; NaN while the replica is unreachable or not yet caught up")
+                .register(registry));
+        checker.scheduleWithFixedDelay(this::checkLag, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * True if the replica answered its last check and cannot be more than
+     * max-lag behind the primary, assuming it has applied nothing since.
+     */
+    public boolean isUsable() {
+        Status current = status;
+        return current.reachable() && current.lagNanos() <= maxLagNanos
+                && current.lagNanos() + (System.nanoTime() - current.checkedAt()) <= maxLagNanos;
+    }
+    
+    public Connection getConnection() throws SQLException {
+        return pool.getConnection();
+    }
+    
+    /**
+     * Takes the replica out of rotation until the next successful check.
+     */
+    public void markUnavailable(SQLException cause) {
+        if (status.reachable()) {
+            log.warn("Read replica unavailable, reading from the primary: {}", cause.getMessage());
+        }
+        status = new Status(false, UNKNOWN_LAG, System.nanoTime());
+    }
+    
+    void checkLag() {
+        try {
+            long primaryPosition = changeRepository.findLatestId();
+            long sampledAt = System.nanoTime();
+            long replicaPosition;
+            try (Connection connection = pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(POSITION_SQL)) {
+                rs.next();
+                replicaPosition = rs.getLong(1);
+            }
+            long lagNanos = recordSample(new Sample(primaryPosition, sampledAt), replicaPosition);
+            if (!status.reachable()) {
+                log.info("Read replica reachable at outbox position {} (primary at {})", replicaPosition, primaryPosition);
+            }
+            status = new Status(true, lagNanos, sampledAt);
+        } catch (SQLException e) {
+            markUnavailable(e);
+        } catch (RuntimeException e) {
+            // Primary unreachable: without a fresh sample the current status simply ages out
+            log.warn("Replica lag check failed", e);
+        }
+    }
+    
+    private long recordSample(Sample sample, long replicaPosition) {
+        if (replicaPosition >= sample.position()) {
+            primarySamples.clear();
+            primarySamples.addLast(sample);
+            return 0;
+        }
+        primarySamples.addLast(sample);
+        // Keep the newest sample the replica has reached at the head; it dates the replica's state
+        while (primarySamples.size() > MAX_SAMPLES
+                || (primarySamples.size() > 1 && second(primarySamples).position() <= replicaPosition)) {
+            primarySamples.removeFirst();
+        }
+        Sample head = primarySamples.getFirst();
+        // Behind every sample taken so far: how far is unknown, so treat it as too far
+        return head.position() <= replicaPosition ? sample.nanos() - head.nanos() : UNKNOWN_LAG;
+    }
+    
+    private double lagSeconds() {
+        Status current = status;
+        return current.reachable() && current.lagNanos() != UNKNOWN_LAG
+                ? current.lagNanos() / (double) TimeUnit.SECONDS.toNanos(1) : Double.NaN;
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        checker.shutdownNow();
+        pool.close();
+    }
+    
+    private static Sample second(Deque<Sample> samples) {
+        Iterator<Sample> iterator = samples.iterator();
+        iterator.next();
+        return iterator.next();
+    }
+    
+    private record Sample(long position, long nanos) {
+    }
+    
+    private record Status(boolean reachable, long lagNanos, long checkedAt) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.servosys.replica;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.servosys.admission.ClientKeyResolver;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Decides which requests may read from the replica: GET and HEAD requests
+ * from clients that have not written within the last max-lag. A client's
+ * writes therefore stay visible to its own reads, because until the replica
+ * is guaranteed to have caught up those reads are served by the primary.
+ * Clients are identified by {@link ClientKeyResolver}, as in admission control.
+ */
+@Component
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+    
+    private static final String REPLICA_READS_ATTRIBUTE = ReadYourWritesInterceptor.class.getName() + ".replicaReads";
+    private static final String REPLICA_SERVED_ATTRIBUTE = ReadYourWritesInterceptor.class.getName() + ".replicaServed";
+    private static final long MAX_CLIENTS = 100_000;
+    
+    private final ClientKeyResolver clientKeyResolver;
+    private final boolean enabled;
+    private final Cache<String, Boolean> recentWriters;
+    
+    public ReadYourWritesInterceptor(
+            ClientKeyResolver clientKeyResolver,
+            @Value("${app.datasource.replica.enabled:false}") boolean enabled,
+            @Value("${app.datasource.replica.max-lag:PT5S}") Duration maxLag) {
+        this.clientKeyResolver = clientKeyResolver;
+        this.enabled = enabled;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(maxLag)
+                .maximumSize(MAX_CLIENTS)
+                .build();
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled) {
+            return true;
+        }
+        String client = clientKeyResolver.clientKey(request);
+        if (!isRead(request)) {
+            recentWriters.put(client, Boolean.TRUE);
+        } else if (recentWriters.getIfPresent(client) == null) {
+            request.setAttribute(REPLICA_READS_ATTRIBUTE, Boolean.TRUE);
+        }
+        return true;
+    }
+    
+    // Pinned again on completion: the max-lag window has to start once the write has committed
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (enabled && !isRead(request)) {
+            recentWriters.put(clientKeyResolver.clientKey(request), Boolean.TRUE);
+        }
+    }
+    
+    /**
+     * True on a request thread (or its async continuation) whose request may
+     * read from the replica; false for background work, which always uses the primary.
+     */
+    static boolean replicaReadsAllowed() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        try {
+            return attributes != null
+                    && attributes.getAttribute(REPLICA_READS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+        } catch (IllegalStateException e) {
+            // Request already completed
+            return false;
+        }
+    }
+    
+    /**
+     * True if the request may read from the replica, so that what it reads can
+     * be up to max-lag older than the primary.
+     */
+    public static boolean replicaReadsAllowed(RequestAttributes request) {
+        return request.getAttribute(REPLICA_READS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+    
+    /**
+     * True once the request has been handed a replica connection.
+     */
+    public static boolean servedFromReplica(RequestAttributes request) {
+        return request.getAttribute(REPLICA_SERVED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+    
+    static void recordReplicaRead() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        try {
+            if (attributes != null) {
+                attributes.setAttribute(REPLICA_SERVED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+            }
+        } catch (IllegalStateException e) {
+            // Request already completed
+        }
+    }
+    
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+}
@@ -0,0 +1,53 @@
+package com.servosys.replica;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * The read-only side of the application's LazyConnectionDataSourceProxy (see
+ * DataSourceConfig), so it is asked for a connection only by read-only
+ * transactions. Hands out a replica connection when the current request may
+ * read from the replica and the replica is within its lag tolerance, and a
+ * primary connection otherwise, including when the replica refuses one.
+ * A request that got a replica connection is marked, so its response can
+ * leave out validators the replica's data may not match.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+    
+    private final DataSource primary;
+    // Resolved on first use: the replica's lag check needs a repository, which needs this DataSource
+    private final Supplier<ReadReplica> replica;
+    
+    public ReplicaRoutingDataSource(DataSource primary, ObjectProvider<ReadReplica> replica) {
+        this.primary = primary;
+        this.replica = SingletonSupplier.of(replica::getObject);
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReadYourWritesInterceptor.replicaReadsAllowed()) {
+            ReadReplica target = replica.get();
+            if (target.isUsable()) {
+                try {
+                    Connection connection = target.getConnection();
+                    ReadYourWritesInterceptor.recordReplicaRead();
+                    return connection;
+                } catch (SQLException e) {
+                    target.markUnavailable(e);
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+}
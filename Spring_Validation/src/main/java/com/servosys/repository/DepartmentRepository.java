@@ -0,0 +1,11 @@
+package com.servosys.repository;
+
+import com.servosys.model.Department;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface DepartmentRepository extends JpaRepository<Department, Integer> {
+    
+    Optional<Department> findByName(String name);
+}
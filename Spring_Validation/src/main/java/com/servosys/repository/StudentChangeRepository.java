@@ -0,0 +1,27 @@
+package com.servosys.repository;
+
+import com.servosys.model.StudentChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StudentChangeRepository extends JpaRepository<StudentChange, Long> {
+    
+    // Feed reads: a primary-key range in id order
+    List<StudentChange> findByIdGreaterThanOrderByIdAsc(Long since, Limit limit);
+    
+    // Outbox position, for measuring replica lag; 0 while the outbox is empty
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM StudentChange c")
+    long findLatestId();
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StudentChange c WHERE c.occurredAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,30 @@
+package com.servosys.repository;
+
+import com.servosys.model.StudentNameTrigram;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface StudentNameTrigramRepository extends JpaRepository<StudentNameTrigram, StudentNameTrigram.Key> {
+    
+    // Students whose name contains every trigram of the search term, paged by student id
+    @Query("SELECT t.id.studentId FROM StudentNameTrigram t WHERE t.id.gram IN :grams AND t.id.studentId > :afterId " +
+           "GROUP BY t.id.studentId HAVING COUNT(t) = :gramCount ORDER BY t.id.studentId")
+    List<Long> findStudentIdsContainingAll(@Param("grams") Collection<String> grams,
+                                           @Param("gramCount") long gramCount,
+                                           @Param("afterId") long afterId,
+                                           Limit limit);
+    
+    @Modifying
+    @Query("DELETE FROM StudentNameTrigram t WHERE t.id.studentId = :studentId AND t.id.gram IN :grams")
+    int deleteGrams(@Param("studentId") Long studentId, @Param("grams") Collection<String> grams);
+    
+    @Modifying
+    @Query("DELETE FROM StudentNameTrigram t WHERE t.id.studentId = :studentId")
+    int deleteByStudentId(@Param("studentId") Long studentId);
+}
@@ -1,30 +1,172 @@
 package com.servosys.repository;
 
+import com.servosys.config.CacheConfig;
+import com.servosys.dto.StudentDTO;
+import com.servosys.dto.VersionedStudent;
 import com.servosys.model.Student;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface StudentRepository extends JpaRepository<Student, Long> {
     
+    // Read paths project straight into StudentDTO: no managed entities, no dirty-checking snapshots
+    String SELECT_DTO = "SELECT new com.servosys.dto.StudentDTO(s.id, s.firstName, s.lastName, s.email, " +
+            "s.phoneNumber, s.dateOfBirth, s.department, s.year, s.cgpa, s.isActive) FROM Student s ";
+    
     Optional<Student> findByEmail(String email);
     
     List<Student> findByDepartment(String department);
     
     List<Student> findByIsActive(Boolean isActive);
     
-    @Query("SELECT s FROM Student s WHERE s.year = :year AND s.cgpa >= :minCgpa")
-    List<Student> findByYearAndCgpaGreaterThanEqual(@Param("year") Integer year, 
-                                                   @Param("minCgpa") Double minCgpa);
+    // Entity keyset walk, used only by index rebuilds that need to write back
+    List<Student> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    
+    @Query(SELECT_DTO + "WHERE s.id = :id")
+    Optional<StudentDTO> findDtoById(@Param("id") Long id);
+    
+    // The row and its validators in one read, so a conditional GET's ETag always matches its body
+    @Query("SELECT new com.servosys.dto.VersionedStudent(s.id, s.firstName, s.lastName, s.email, s.phoneNumber, " +
+            "s.dateOfBirth, s.department, s.year, s.cgpa, s.isActive, s.version, s.updatedAt) FROM Student s WHERE s.id = :id")
+    Optional<VersionedStudent> findVersionedById(@Param("id") Long id);
+    
+    @Query(SELECT_DTO + "WHERE s.id IN :ids")
+    List<StudentDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Keyset pagination: callers pass the last id they saw and a limit
+    @Query(SELECT_DTO + "WHERE s.id > :afterId ORDER BY s.id")
+    List<StudentDTO> findDtosAfter(@Param("afterId") Long afterId, Limit limit);
+    
+    @Query(SELECT_DTO + "WHERE s.isActive = :isActive AND s.id > :afterId ORDER BY s.id")
+    List<StudentDTO> findDtosByIsActiveAfter(@Param("isActive") Boolean isActive,
+                                             @Param("afterId") Long afterId, Limit limit);
+    
+    @Query(SELECT_DTO + "WHERE s.department = :department AND s.id > :afterId ORDER BY s.id")
+    List<StudentDTO> findDtosByDepartmentAfter(@Param("department") String department,
+                                               @Param("afterId") Long afterId, Limit limit);
+    
+    // Cursor-backed streams for the NDJSON endpoints; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + "ORDER BY s.id")
+    Stream<StudentDTO> streamDtos();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + "WHERE s.isActive = :isActive ORDER BY s.id")
+    Stream<StudentDTO> streamDtosByIsActive(@Param("isActive") Boolean isActive);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + "WHERE s.department = :department ORDER BY s.id")
+    Stream<StudentDTO> streamDtosByDepartment(@Param("department") String department);
+    
+    // Rankings: best CGPA first, ties by id, read in index order and cut off by the limit.
+    // The equality column leads the ORDER BY so H2 recognises the index order and skips the sort.
+    @Query(SELECT_DTO + "WHERE s.year = :year AND s.cgpa >= :minCgpa ORDER BY s.year, s.cgpa DESC, s.id")
+    List<StudentDTO> findTopByYear(@Param("year") Integer year, @Param("minCgpa") Double minCgpa, Limit limit);
+    
+    @Query(SELECT_DTO + "WHERE s.department = :department AND s.cgpa >= :minCgpa " +
+           "ORDER BY s.department, s.cgpa DESC, s.id")
+    List<StudentDTO> findTopByDepartment(@Param("department") String department,
+                                         @Param("minCgpa") Double minCgpa, Limit limit);
+    
+    @Query(SELECT_DTO + "WHERE s.department = :department AND s.year = :year AND s.cgpa >= :minCgpa " +
+           "ORDER BY s.department, s.cgpa DESC, s.id")
+    List<StudentDTO> findTopByDepartmentAndYear(@Param("department") String department, @Param("year") Integer year,
+                                                @Param("minCgpa") Double minCgpa, Limit limit);
+    
+    // Prefix search as a range on the normalized columns so an index can serve it
+    @Query(SELECT_DTO + "WHERE s.firstNameNormalized >= :from AND s.firstNameNormalized < :to " +
+           "ORDER BY s.firstNameNormalized, s.id")
+    List<StudentDTO> findByFirstNamePrefix(@Param("from") String from, @Param("to") String to, Limit limit);
     
-    @Query("SELECT s FROM Student s WHERE LOWER(s.firstName) LIKE LOWER(CONCAT('%', :name, '%')) " +
-           "OR LOWER(s.lastName) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Student> findByNameContaining(@Param("name") String name);
+    @Query(SELECT_DTO + "WHERE s.lastNameNormalized >= :from AND s.lastNameNormalized < :to " +
+           "ORDER BY s.lastNameNormalized, s.id")
+    List<StudentDTO> findByLastNamePrefix(@Param("from") String from, @Param("to") String to, Limit limit);
+    
+    // Infix search for terms too short to have trigrams; a scan, like the search it replaced
+    @Query(SELECT_DTO + "WHERE CONCAT(s.firstNameNormalized, ' ', s.lastNameNormalized) LIKE :pattern ESCAPE '\\' " +
+           "ORDER BY s.id")
+    List<StudentDTO> findByFullNameContaining(@Param("pattern") String pattern, Limit limit);
+    
+    // Status changes as single statements. Rows already in the target state are left alone, and
+    // updatedAt is stamped explicitly since bulk JPQL bypasses @UpdateTimestamp. Bulk JPQL
+    // also bypasses @Version, so the version is bumped by hand.
+    String ACTIVE_CHANGES = "(s.isActive IS NULL OR s.isActive <> :active)";
+    
+    // The rows an updateActiveById/ByIdIn is about to change, locked so their state is still
+    // the before-state when the UPDATE runs
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(SELECT_DTO + "WHERE s.id IN :ids AND " + ACTIVE_CHANGES)
+    List<StudentDTO> lockDtosToChangeActive(@Param("ids") Collection<Long> ids, @Param("active") boolean active);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Student s SET s.isActive = :active, s.updatedAt = :now, s.version = s.version + 1 WHERE s.id = :id AND " + ACTIVE_CHANGES)
+    int updateActiveById(@Param("id") Long id, @Param("active") boolean active, @Param("now") LocalDateTime now);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Student s SET s.isActive = :active, s.updatedAt = :now, s.version = s.version + 1 WHERE s.id IN :ids AND " + ACTIVE_CHANGES)
+    int updateActiveByIdIn(@Param("ids") Collection<Long> ids, @Param("active") boolean active,
+                           @Param("now") LocalDateTime now);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Student s SET s.isActive = :active, s.updatedAt = :now, s.version = s.version + 1 WHERE s.year = :year AND " + ACTIVE_CHANGES)
+    int updateActiveByYear(@Param("year") Integer year, @Param("active") boolean active,
+                           @Param("now") LocalDateTime now);
+    
+    // Direct delete: no entity load, no cascade; callers take their own before-snapshot
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Student s WHERE s.id = :id")
+    int deleteDirectlyById(@Param("id") Long id);
+    
+    // sync: loaded inside Caffeine's per-key compute, which an eviction waits for (see StudentCacheEvictor).
+    // Free emails are cached as null too, and evicted once a student takes them.
+    @Cacheable(cacheNames = CacheConfig.STUDENT_IDS_BY_EMAIL, sync = true)
+    @Query("SELECT s.id FROM Student s WHERE s.email = :email")
+    Long findIdByEmail(@Param("email") String email);
     
     boolean existsByEmail(String email);
     
+    // Set-based duplicate check for batch ingest: one query per chunk instead of one per row
+    @Query("SELECT s.id AS id, s.email AS email FROM Student s WHERE s.email IN :emails")
+    List<EmailOwner> findEmailOwners(@Param("emails") Collection<String> emails);
+    
     boolean existsByEmailAndIdNot(String email, Long id);
+    
+    // Batch email swaps: moves the rows' emails out of the way of the unique key until the
+    // same flush writes their new ones. Leaves managed entities (and their snapshots) alone.
+    @Modifying
+    @Query("UPDATE Student s SET s.email = CONCAT('moving-', CAST(s.id AS String), '@invalid') WHERE s.id IN :ids")
+    int parkEmails(@Param("ids") Collection<Long> ids);
+    
+    // Stats rebuild: one row per distinct (department, year, active, cgpa), not per student
+    @Query("SELECT s.department AS department, s.year AS year, s.isActive AS active, s.cgpa AS cgpa, " +
+           "COUNT(s) AS students FROM Student s GROUP BY s.department, s.year, s.isActive, s.cgpa")
+    List<StatsRow> findStatsRows();
+    
+    interface StatsRow {
+        String getDepartment();
+        Integer getYear();
+        Boolean getActive();
+        Double getCgpa();
+        Long getStudents();
+    }
+    
+    interface EmailOwner {
+        Long getId();
+        String getEmail();
+    }
 }
\ No newline at end of file
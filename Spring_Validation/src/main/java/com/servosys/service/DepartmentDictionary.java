@@ -0,0 +1,190 @@
+package com.servosys.service;
+
+import com.servosys.model.Department;
+import com.servosys.repository.DepartmentRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process copy of the departments table, loaded before anything reads a
+ * student. A miss loads through from the table and caches what it finds, so
+ * a department added by another instance is picked up on first use; only a
+ * name or id that is really absent yields null. Each name is held once and
+ * handed out to every Student and StudentDTO (see
+ * {@link com.servosys.model.DepartmentConverter}).
+ * <p>
+ * The database is read with plain JDBC: lookups also run from inside
+ * Hibernate's flush and result mapping (through the converter), where the
+ * session must not be re-entered.
+ */
+@Service
+@Slf4j
+public class DepartmentDictionary {
+    
+    private final DepartmentRepository departmentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final Map<Integer, String> namesById = new ConcurrentHashMap<>();
+    
+    public DepartmentDictionary(DepartmentRepository departmentRepository, JdbcTemplate jdbcTemplate) {
+        this.departmentRepository = departmentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @PostConstruct
+    void load() {
+        departmentRepository.findAll().forEach(this::remember);
+        log.info("Department dictionary loaded: {} departments", namesById.size());
+    }
+    
+    /**
+     * Id of the named department, or null if there is none.
+     */
+    public Integer find(String name) {
+        if (name == null) {
+            return null;
+        }
+        Integer id = idsByName.get(name);
+        if (id == null) {
+            PendingDepartments pending = pending();
+            id = pending != null ? pending.idsByName.get(name) : null;
+        }
+        if (id == null) {
+            List<Integer> ids = jdbcTemplate.queryForList("SELECT id FROM departments WHERE name = ?", Integer.class, name);
+            if (!ids.isEmpty()) {
+                id = ids.get(0);
+                remember(new Department(id, name));
+            }
+        }
+        return id;
+    }
+    
+    /**
+     * Id of the named department, creating it in the current transaction on
+     * first use. The row commits or rolls back with the student that needed
+     * it, and is cached only once committed.
+     */
+    public int resolve(String name) {
+        Integer id = find(name);
+        return id != null ? id : create(name);
+    }
+    
+    /**
+     * Name of the department, or null if there is no department with that id.
+     */
+    public String nameOf(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        String name = namesById.get(id);
+        if (name == null) {
+            PendingDepartments pending = pending();
+            name = pending != null ? pending.namesById.get(id) : null;
+        }
+        if (name == null) {
+            List<String> names = jdbcTemplate.queryForList("SELECT name FROM departments WHERE id = ?", String.class, id);
+            if (!names.isEmpty()) {
+                name = names.get(0);
+                remember(new Department(id, name));
+            }
+        }
+        return name;
+    }
+    
+    // No lock and no second connection: the unique key serializes two transactions adding the
+    // same name (the second waits for the first), and a savepoint keeps the loser's transaction
+    // usable so it can take the winner's row.
+    private int create(String name) {
+        Integer id;
+        try {
+            id = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> insert(connection, name));
+        } catch (DataIntegrityViolationException e) {
+            Integer existing = find(name);
+            if (existing == null) {
+                throw e;
+            }
+            return existing;
+        }
+        log.info("Department created: {} ({})", name, id);
+        Department department = new Department(id, name);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(department);
+            return id;
+        }
+        PendingDepartments pending = pending();
+        if (pending == null) {
+            pending = new PendingDepartments();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(department);
+        return id;
+    }
+    
+    private static Integer insert(Connection connection, String name) throws SQLException {
+        Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO departments (name) VALUES (?)", new String[] {"id"})) {
+            insert.setString(1, name);
+            insert.executeUpdate();
+            try (ResultSet keys = insert.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        } catch (SQLException e) {
+            if (savepoint != null) {
+                connection.rollback(savepoint);
+            }
+            throw e;
+        } finally {
+            if (savepoint != null) {
+                connection.releaseSavepoint(savepoint);
+            }
+        }
+    }
+    
+    private PendingDepartments pending() {
+        return (PendingDepartments) TransactionSynchronizationManager.getResource(this);
+    }
+    
+    private void remember(Department department) {
+        namesById.putIfAbsent(department.getId(), department.getName());
+        idsByName.putIfAbsent(department.getName(), department.getId());
+    }
+    
+    // Departments created by the current transaction: visible to it, cached for everyone on commit
+    private final class PendingDepartments implements TransactionSynchronization {
+        
+        private final Map<String, Integer> idsByName = new HashMap<>();
+        private final Map<Integer, String> namesById = new HashMap<>();
+        
+        void add(Department department) {
+            idsByName.put(department.getName(), department.getId());
+            namesById.put(department.getId(), department.getName());
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DepartmentDictionary.this);
+            if (status == STATUS_COMMITTED) {
+                idsByName.forEach((name, id) -> remember(new Department(id, name)));
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.servosys.service;
+
+import com.servosys.config.CacheConfig;
+import com.servosys.dto.StudentDTO;
+import com.servosys.event.StudentChangedEvent;
+import com.servosys.event.StudentYearStatusChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evicts cached students and email lookups once a mutation has committed, so
+ * a concurrent reader can never re-populate the cache with uncommitted state.
+ * A reader that read the old row before the commit cannot put it back after
+ * the eviction either: students and email lookups are loaded with
+ * {@code @Cacheable(sync = true)}, i.e. inside Caffeine's per-key compute, and
+ * an eviction of that key blocks until the load has finished and then removes
+ * what it loaded. An email is evicted both when a student gives it up and when
+ * one takes it, since free emails are cached as well. A change of a
+ * whole year clears all cached students, since it names none. With a read
+ * replica the same entries are evicted again after max-lag, since a read
+ * served by a lagging replica may have re-cached the old state.
+ */
+@Component
+public class StudentCacheEvictor {
+    
+    private final CacheManager cacheManager;
+    // Null without a replica; runs the (cheap) second eviction on the delay timer's own thread
+    private final Executor replicaLagEvictions;
+    
+    public StudentCacheEvictor(CacheManager cacheManager,
+                               @Value("${app.datasource.replica.enabled:false}") boolean replicaEnabled,
+                               @Value("${app.datasource.replica.max-lag:PT5S}") Duration replicaMaxLag) {
+        this.cacheManager = cacheManager;
+        this.replicaLagEvictions = replicaEnabled
+                ? CompletableFuture.delayedExecutor(replicaMaxLag.toMillis(), TimeUnit.MILLISECONDS, Runnable::run)
+                : null;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        evict(event);
+        if (replicaLagEvictions != null) {
+            replicaLagEvictions.execute(() -> evict(event));
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onYearStatusChanged(StudentYearStatusChangedEvent event) {
+        cache(CacheConfig.STUDENTS).clear();
+        if (replicaLagEvictions != null) {
+            replicaLagEvictions.execute(() -> cache(CacheConfig.STUDENTS).clear());
+        }
+    }
+    
+    private void evict(StudentChangedEvent event) {
+        if (event.getType() != StudentChangedEvent.Type.CREATED) {
+            cache(CacheConfig.STUDENTS).evict(event.getStudentId());
+        }
+        String oldEmail = emailOf(event.getBefore());
+        String newEmail = emailOf(event.getAfter());
+        if (!Objects.equals(oldEmail, newEmail)) {
+            evictEmail(oldEmail);
+            evictEmail(newEmail);
+        }
+    }
+    
+    private void evictEmail(String email) {
+        if (email != null) {
+            cache(CacheConfig.STUDENT_IDS_BY_EMAIL).evict(email);
+        }
+    }
+    
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name), name);
+    }
+    
+    private static String emailOf(StudentDTO student) {
+        return student != null ? student.getEmail() : null;
+    }
+}
@@ -0,0 +1,355 @@
+package com.servosys.service;
+
+import com.servosys.dto.StudentChangeBatch;
+import com.servosys.dto.StudentChangeDTO;
+import com.servosys.dto.StudentDTO;
+import com.servosys.exception.ValidationException;
+import com.servosys.model.StudentChange;
+import com.servosys.repository.StudentChangeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reads the student_changes outbox: batches for polling consumers and
+ * server-sent events for live tailing. Live subscribers are fed by one
+ * dispatcher thread that is woken after each committed change and reads the
+ * outbox once from the slowest subscriber's cursor, whatever the number of
+ * subscribers. The same thread queues heartbeats and purges old changes.
+ * <p>
+ * The dispatcher never writes to a connection: each subscriber has a bounded
+ * queue drained by its own sender, so a client that reads slowly delays only
+ * itself. A subscriber whose queue has no room for another batch is skipped
+ * (and no longer holds back the others' reads) until its sender catches up.
+ * One whose send has been blocked longer than {@code app.changes.send-timeout}
+ * is dropped; the stream ends once that send returns, and the client resumes
+ * from its Last-Event-ID.
+ * <p>
+ * Writers, possibly on several instances, commit outbox rows out of id order,
+ * so a missing id may belong to a transaction that is still committing. A
+ * read stops before such a gap until the gap closes or the row after it is
+ * older than {@code app.changes.gap-grace}; by then the missing id belongs to
+ * a rolled-back transaction or a purged row. The grace must exceed the time
+ * between an outbox insert and its commit, plus the clock skew between
+ * instances.
+ */
+@Service
+@Slf4j
+public class StudentChangeFeed {
+    
+    public static final int MAX_BATCH_SIZE = 1000;
+    
+    private static final int DISPATCH_BATCH_SIZE = 500;
+    private static final int SUBSCRIBER_QUEUE_CAPACITY = 2 * DISPATCH_BATCH_SIZE;
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+    private static final Duration PURGE_INTERVAL = Duration.ofHours(1);
+    
+    private final StudentChangeRepository changeRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Duration sseTimeout;
+    private final Duration gapGrace;
+    private final Duration sendTimeout;
+    
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "student-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // A thread per subscriber with events queued, so a blocked send holds up no one else
+    private final ExecutorService senders = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "student-change-feed-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public StudentChangeFeed(StudentChangeRepository changeRepository, ObjectMapper objectMapper,
+                             @Value("${app.changes.retention:P7D}") Duration retention,
+                             @Value("${app.changes.sse-timeout:PT30M}") Duration sseTimeout,
+                             @Value("${app.changes.gap-grace:PT10S}") Duration gapGrace,
+                             @Value("${app.changes.send-timeout:PT30S}") Duration sendTimeout) {
+        this.changeRepository = changeRepository;
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+        this.sseTimeout = sseTimeout;
+        this.gapGrace = gapGrace;
+        this.sendTimeout = sendTimeout;
+        dispatcher.scheduleWithFixedDelay(this::heartbeat, HEARTBEAT_INTERVAL.toSeconds(),
+                HEARTBEAT_INTERVAL.toSeconds(), TimeUnit.SECONDS);
+        dispatcher.scheduleWithFixedDelay(this::purge, PURGE_INTERVAL.toMinutes(),
+                PURGE_INTERVAL.toMinutes(), TimeUnit.MINUTES);
+    }
+    
+    /**
+     * Returns up to {@code limit} changes with a sequence greater than {@code since}, oldest first,
+     * stopping before a sequence that may still be committing.
+     */
+    public StudentChangeBatch read(long since, int limit) {
+        if (limit < 1 || limit > MAX_BATCH_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        return settledRead(since, limit).batch();
+    }
+    
+    /**
+     * Opens a live tail: first the backlog after {@code since}, then each change as it commits.
+     */
+    public SseEmitter subscribe(long since) {
+        return subscribe(new SseEmitter(sseTimeout.toMillis()), since);
+    }
+    
+    SseEmitter subscribe(SseEmitter emitter, long since) {
+        Subscriber subscriber = new Subscriber(emitter, since);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        changesCommitted();
+        return emitter;
+    }
+    
+    /**
+     * Wakes the dispatcher; calls arriving while a dispatch is queued are coalesced.
+     */
+    public void changesCommitted() {
+        if (!subscribers.isEmpty() && dispatchPending.compareAndSet(false, true)) {
+            dispatcher.execute(this::dispatch);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(Subscriber::close);
+        senders.shutdown();
+    }
+    
+    private SettledRead settledRead(long since, int limit) {
+        List<StudentChange> rows = changeRepository.findByIdGreaterThanOrderByIdAsc(since, Limit.of(limit + 1));
+        LocalDateTime settled = LocalDateTime.now().minus(gapGrace);
+        List<StudentChangeDTO> changes = new ArrayList<>(Math.min(rows.size(), limit));
+        long previous = since;
+        boolean gapPending = false;
+        for (StudentChange row : rows) {
+            if (changes.size() == limit) {
+                break;
+            }
+            if (row.getId() != previous + 1 && row.getOccurredAt().isAfter(settled)) {
+                gapPending = true;
+                break;
+            }
+            changes.add(toDTO(row));
+            previous = row.getId();
+        }
+        boolean hasMore = !gapPending && rows.size() > limit;
+        return new SettledRead(new StudentChangeBatch(changes, previous, hasMore), gapPending);
+    }
+    
+    private void dispatch() {
+        dispatchPending.set(false);
+        try {
+            dropStalled();
+            boolean hasMore = true;
+            boolean gapPending = false;
+            while (hasMore) {
+                List<Subscriber> ready = subscribers.stream().filter(Subscriber::hasRoomForBatch).toList();
+                if (ready.isEmpty()) {
+                    break;
+                }
+                long since = ready.stream().mapToLong(subscriber -> subscriber.cursor).min().orElseThrow();
+                SettledRead read = settledRead(since, DISPATCH_BATCH_SIZE);
+                for (Subscriber subscriber : ready) {
+                    for (StudentChangeDTO change : read.batch().getChanges()) {
+                        if (change.getSequence() > subscriber.cursor) {
+                            subscriber.enqueue(event(change));
+                            subscriber.cursor = change.getSequence();
+                        }
+                    }
+                }
+                hasMore = read.batch().isHasMore();
+                gapPending = read.gapPending();
+            }
+            // The commit that closes the gap wakes us too, but not a rollback or another instance's commit
+            if (gapPending) {
+                dispatcher.schedule(this::changesCommitted, gapGrace.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Change feed dispatch failed", e);
+        }
+    }
+    
+    private static SseEmitter.SseEventBuilder event(StudentChangeDTO change) {
+        return SseEmitter.event()
+                .id(Long.toString(change.getSequence()))
+                .name(change.getType())
+                .data(change, MediaType.APPLICATION_JSON);
+    }
+    
+    // Comments keep proxies from idling the stream out and reveal clients that went away.
+    // A subscriber with events still queued needs none.
+    private void heartbeat() {
+        dropStalled();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.isEmpty()) {
+                subscriber.enqueue(SseEmitter.event().comment("keepalive"));
+            }
+        }
+    }
+    
+    private void dropStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStarted;
+            if (started != 0 && now - started > sendTimeout.toNanos()) {
+                log.debug("Dropped change feed subscriber: send blocked for over {}", sendTimeout);
+                subscriber.close();
+            }
+        }
+    }
+    
+    private void purge() {
+        try {
+            int purged = changeRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+            if (purged > 0) {
+                log.info("Purged {} student changes older than {}", purged, retention);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Student change purge failed", e);
+        }
+    }
+    
+    private void drop(Subscriber subscriber, Exception cause) {
+        subscribers.remove(subscriber);
+        subscriber.emitter.completeWithError(cause);
+        log.debug("Dropped change feed subscriber: {}", cause.toString());
+    }
+    
+    private StudentChangeDTO toDTO(StudentChange change) {
+        if (change.getStudentId() == null) {
+            JsonNode yearChange = objectMapper.readTree(change.getPayload());
+            return new StudentChangeDTO(change.getId(), change.getType(), null, null, change.getOccurredAt(),
+                    yearChange.get("year").asInt(), yearChange.get("changed").asInt());
+        }
+        StudentDTO student = change.getPayload() != null
+                ? objectMapper.readValue(change.getPayload(), StudentDTO.class) : null;
+        return new StudentChangeDTO(change.getId(), change.getType(), change.getStudentId(), student,
+                change.getOccurredAt(), null, null);
+    }
+    
+    private record SettledRead(StudentChangeBatch batch, boolean gapPending) {
+    }
+    
+    /**
+     * A live tail: events the dispatcher queued and the sender that writes
+     * them. At most one drain runs at a time, and only it touches the emitter.
+     */
+    private final class Subscriber {
+        
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new LinkedBlockingQueue<>(SUBSCRIBER_QUEUE_CAPACITY);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        
+        // Last sequence queued; only touched by the dispatcher thread
+        private long cursor;
+        // Skipped by a dispatch for lack of room: the sender wakes the dispatcher once caught up
+        private volatile boolean behind;
+        // System.nanoTime() when the send in progress started, 0 between sends
+        private volatile long sendStarted;
+        private volatile boolean closed;
+        
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+        
+        // Checked again after flagging, so a drain finishing in between still wakes the dispatcher
+        boolean hasRoomForBatch() {
+            if (queue.remainingCapacity() >= DISPATCH_BATCH_SIZE) {
+                return true;
+            }
+            behind = true;
+            return queue.remainingCapacity() >= DISPATCH_BATCH_SIZE;
+        }
+        
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (queue.offer(event)) {
+                startDrain();
+            }
+        }
+        
+        // Stops sending; a send in progress cannot be interrupted, so the sender ends the stream after it
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            startDrain();
+        }
+        
+        private void startDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+        
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = queue.poll()) != null) {
+                    if (!send(event)) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    emitter.complete();
+                    return;
+                }
+                draining.set(false);
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+            if (behind) {
+                behind = false;
+                changesCommitted();
+            }
+        }
+        
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            sendStarted = System.nanoTime();
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                closed = true;
+                drop(this, e);
+                return false;
+            } finally {
+                sendStarted = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.servosys.service;
+
+import com.servosys.event.StudentChangedEvent;
+import com.servosys.event.StudentYearStatusChangedEvent;
+import com.servosys.model.StudentChange;
+import com.servosys.repository.StudentChangeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends every {@link StudentChangedEvent} to the student_changes outbox in
+ * the transaction that caused it. A transaction's rows are inserted just
+ * before commit, and each takes its id and its occurredAt right there, so
+ * only the insert and the commit itself separate an id from its visibility.
+ * Concurrent transactions, on this instance or another, may still make ids
+ * visible out of order; {@link StudentChangeFeed} waits out such gaps.
+ */
+@Component
+@RequiredArgsConstructor
+public class StudentChangeRecorder {
+    
+    static final String YEAR_ACTIVATED = "YEAR_ACTIVATED";
+    static final String YEAR_DEACTIVATED = "YEAR_DEACTIVATED";
+    
+    private final StudentChangeRepository changeRepository;
+    private final StudentChangeFeed changeFeed;
+    private final ObjectMapper objectMapper;
+    
+    @EventListener
+    public void onStudentChanged(StudentChangedEvent event) {
+        StudentChange change = StudentChange.builder()
+                .studentId(event.getStudentId())
+                .type(event.getType().name())
+                .payload(event.getAfter() != null ? objectMapper.writeValueAsString(event.getAfter()) : null)
+                .occurredAt(LocalDateTime.now())
+                .build();
+        record(change);
+    }
+    
+    // One row for the whole year, with no student id: consumers re-read that year
+    @EventListener
+    public void onYearStatusChanged(StudentYearStatusChangedEvent event) {
+        StudentChange change = StudentChange.builder()
+                .type(event.isActive() ? YEAR_ACTIVATED : YEAR_DEACTIVATED)
+                .payload(objectMapper.writeValueAsString(event))
+                .occurredAt(LocalDateTime.now())
+                .build();
+        record(change);
+    }
+    
+    private void record(StudentChange change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changeRepository.save(change);
+            changeFeed.changesCommitted();
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.changes.add(change);
+    }
+    
+    private final class PendingChanges implements TransactionSynchronization {
+        
+        private final List<StudentChange> changes = new ArrayList<>();
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Flush the transaction's own writes first: they may wait on row locks, which
+            // must not happen between taking the outbox ids and committing
+            changeRepository.flush();
+            LocalDateTime now = LocalDateTime.now();
+            changes.forEach(change -> change.setOccurredAt(now));
+            changeRepository.saveAll(changes);
+            changeRepository.flush();
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StudentChangeRecorder.this);
+            if (status == STATUS_COMMITTED) {
+                changeFeed.changesCommitted();
+            }
+        }
+    }
+}
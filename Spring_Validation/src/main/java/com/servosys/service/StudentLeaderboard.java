@@ -0,0 +1,160 @@
+package com.servosys.service;
+
+import com.servosys.dto.StudentDTO;
+import com.servosys.event.StudentChangedEvent;
+import com.servosys.event.StudentYearStatusChangedEvent;
+import com.servosys.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory per-year leaderboards holding the top {@code app.leaderboard.capacity}
+ * students by CGPA (ties by id). A board is loaded from the ranking index on
+ * first use and then kept current from committed {@link StudentChangedEvent}s;
+ * if removals leave a truncated board short, it reloads on the next read.
+ * Loads always read the primary: a board loaded from a lagging replica would
+ * miss changes whose events had already been applied, and keep missing them.
+ */
+@Component
+public class StudentLeaderboard {
+    
+    static final Comparator<StudentDTO> RANKING = Comparator
+            .comparing(StudentDTO::getCgpa, Comparator.reverseOrder())
+            .thenComparing(StudentDTO::getId);
+    
+    private final StudentRepository studentRepository;
+    private final TransactionTemplate primaryRead;
+    private final boolean enabled;
+    private final int capacity;
+    private final ConcurrentMap<Integer, Board> boards = new ConcurrentHashMap<>();
+    
+    public StudentLeaderboard(StudentRepository studentRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.leaderboard.enabled:true}") boolean enabled,
+                              @Value("${app.leaderboard.capacity:100}") int capacity) {
+        this.studentRepository = studentRepository;
+        // Not read-only, so the replica routing (see DataSourceConfig) leaves it on the primary
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.capacity = capacity;
+    }
+    
+    /**
+     * Returns the top {@code limit} students of a year with a CGPA of at least
+     * {@code minCgpa}, or null when the leaderboard cannot answer (disabled, or
+     * {@code limit} is larger than a board holds). Only years a student can have
+     * get a board, so the set of boards stays bounded.
+     */
+    public List<StudentDTO> top(Integer year, double minCgpa, int limit) {
+        if (!enabled || limit > capacity || year == null
+                || year < StudentServiceImpl.MIN_YEAR || year > StudentServiceImpl.MAX_YEAR) {
+            return null;
+        }
+        return boards.computeIfAbsent(year, Board::new).top(minCgpa, limit);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        StudentDTO before = event.getBefore();
+        Board board = before != null ? board(before.getYear()) : null;
+        if (board != null) {
+            board.remove(before.getId());
+        }
+        StudentDTO after = event.getAfter();
+        board = after != null && after.getCgpa() != null ? board(after.getYear()) : null;
+        if (board != null) {
+            board.add(after);
+        }
+    }
+    
+    // Every entry of the year's board now holds a stale status; it reloads on the next read
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onYearStatusChanged(StudentYearStatusChangedEvent event) {
+        boards.remove(event.getYear());
+    }
+    
+    // Only boards that have been read are maintained; the rest load fresh on first use
+    private Board board(Integer year) {
+        return year != null ? boards.get(year) : null;
+    }
+    
+    private final class Board {
+        
+        private final Integer year;
+        private final TreeSet<StudentDTO> ranked = new TreeSet<>(RANKING);
+        private final Map<Long, StudentDTO> byId = new HashMap<>();
+        private boolean loaded;
+        
+        // The board holds every graded student of the year, so it can never run short
+        private boolean complete;
+        
+        Board(Integer year) {
+            this.year = year;
+        }
+        
+        synchronized List<StudentDTO> top(double minCgpa, int limit) {
+            if (!loaded || (!complete && ranked.size() < capacity)) {
+                load();
+            }
+            List<StudentDTO> top = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (StudentDTO student : ranked) {
+                if (top.size() == limit || student.getCgpa() < minCgpa) {
+                    break;
+                }
+                top.add(student);
+            }
+            return top;
+        }
+        
+        synchronized void remove(Long id) {
+            StudentDTO current = byId.remove(id);
+            if (current != null) {
+                ranked.remove(current);
+            }
+        }
+        
+        // Events may replay changes a concurrent load already saw, so adds replace by id
+        synchronized void add(StudentDTO student) {
+            if (!loaded) {
+                return;
+            }
+            remove(student.getId());
+            ranked.add(student);
+            byId.put(student.getId(), student);
+            if (ranked.size() > capacity) {
+                byId.remove(ranked.pollLast().getId());
+                complete = false;
+            }
+        }
+        
+        private void load() {
+            List<StudentDTO> rows = primaryRead.execute(status ->
+                    studentRepository.findTopByYear(year, Double.NEGATIVE_INFINITY, Limit.of(capacity + 1)));
+            ranked.clear();
+            byId.clear();
+            complete = rows.size() <= capacity;
+            for (StudentDTO student : complete ? rows : rows.subList(0, capacity)) {
+                ranked.add(student);
+                byId.put(student.getId(), student);
+            }
+            loaded = true;
+        }
+    }
+}
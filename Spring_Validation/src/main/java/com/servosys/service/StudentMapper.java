@@ -0,0 +1,30 @@
+package com.servosys.service;
+
+import com.servosys.dto.StudentDTO;
+import com.servosys.model.Student;
+
+/**
+ * Maps a loaded Student entity to the StudentDTO the API returns. Read paths
+ * select StudentDTO projections directly; this is for the write paths, which
+ * have the entity in hand, and for the conversion benchmarks.
+ */
+public final class StudentMapper {
+    
+    private StudentMapper() {
+    }
+    
+    public static StudentDTO toDto(Student student) {
+        return StudentDTO.builder()
+                .id(student.getId())
+                .firstName(student.getFirstName())
+                .lastName(student.getLastName())
+                .email(student.getEmail())
+                .phoneNumber(student.getPhoneNumber())
+                .dateOfBirth(student.getDateOfBirth())
+                .department(student.getDepartment())
+                .year(student.getYear())
+                .cgpa(student.getCgpa())
+                .isActive(student.getIsActive())
+                .build();
+    }
+}
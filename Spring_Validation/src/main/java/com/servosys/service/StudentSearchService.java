@@ -0,0 +1,195 @@
+package com.servosys.service;
+
+import com.servosys.dto.StudentDTO;
+import com.servosys.event.StudentChangedEvent;
+import com.servosys.exception.ValidationException;
+import com.servosys.model.Student;
+import com.servosys.model.StudentNameTrigram;
+import com.servosys.repository.StudentNameTrigramRepository;
+import com.servosys.repository.StudentRepository;
+import com.servosys.util.NameNormalizer;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Name search backed by the normalized name columns (prefix matches) and the
+ * student_name_trigrams table (infix matches). Terms shorter than a trigram
+ * fall back to scanning the names. The trigram table is kept in sync from
+ * {@link StudentChangedEvent}s inside the mutating transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentSearchService {
+    
+    public static final int MAX_RESULTS = 100;
+    
+    // Infix candidates fetched per page per result still needed, to leave room for trigram false positives
+    private static final int CANDIDATE_FACTOR = 4;
+    private static final int REBUILD_CHUNK = 500;
+    
+    private static final int RANK_EXACT = 0;
+    private static final int RANK_PREFIX = 1;
+    private static final int RANK_INFIX = 2;
+    
+    private final StudentRepository studentRepository;
+    private final StudentNameTrigramRepository trigramRepository;
+    private final EntityManager entityManager;
+    
+    /**
+     * Returns up to {@code limit} students ranked exact name match first, then
+     * first/last name prefix matches, then matches anywhere in the full name.
+     */
+    @Transactional(readOnly = true)
+    public List<StudentDTO> search(String term, int limit) {
+        String query = NameNormalizer.normalize(term);
+        if (query == null || query.isEmpty()) {
+            throw new ValidationException("Search term must not be blank");
+        }
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_RESULTS);
+        }
+        
+        Map<Long, Ranked> matches = new LinkedHashMap<>();
+        String upper = NameNormalizer.prefixUpperBound(query);
+        Stream.concat(
+                studentRepository.findByFirstNamePrefix(query, upper, Limit.of(limit)).stream(),
+                studentRepository.findByLastNamePrefix(query, upper, Limit.of(limit)).stream())
+                .forEach(student -> matches.putIfAbsent(student.getId(), rank(student, query)));
+        
+        int needed = limit - matches.size();
+        Set<String> grams = NameNormalizer.trigrams(query);
+        if (needed > 0 && grams.isEmpty()) {
+            // Too short for trigrams: scan the names. Every row returned is a match,
+            // so one query covers the results still needed plus any prefix duplicates.
+            studentRepository.findByFullNameContaining(containsPattern(query), Limit.of(needed + matches.size()))
+                    .forEach(student -> matches.putIfAbsent(student.getId(), rank(student, query)));
+        } else if (needed > 0) {
+            // Candidates come in id order and some only contain the grams apart, so keep
+            // paging until enough of them actually contain the term or there are no more
+            long afterId = 0;
+            int found = 0;
+            int pageSize = needed * CANDIDATE_FACTOR;
+            List<Long> candidateIds;
+            do {
+                candidateIds = trigramRepository.findStudentIdsContainingAll(
+                        grams, grams.size(), afterId, Limit.of(pageSize));
+                if (candidateIds.isEmpty()) {
+                    break;
+                }
+                afterId = candidateIds.get(candidateIds.size() - 1);
+                List<Long> unseen = candidateIds.stream().filter(id -> !matches.containsKey(id)).toList();
+                for (StudentDTO student : studentRepository.findDtosByIdIn(unseen)) {
+                    Ranked ranked = rank(student, query);
+                    if (ranked != null) {
+                        matches.put(student.getId(), ranked);
+                        found++;
+                    }
+                }
+            } while (found < needed && candidateIds.size() == pageSize);
+        }
+        
+        return matches.values().stream()
+                .sorted(Comparator.comparingInt(Ranked::rank)
+                        .thenComparing(Ranked::fullName)
+                        .thenComparing(ranked -> ranked.student().getId()))
+                .limit(limit)
+                .map(Ranked::student)
+                .collect(Collectors.toList());
+    }
+    
+    @EventListener
+    public void onStudentChanged(StudentChangedEvent event) {
+        if (event.getAfter() == null) {
+            trigramRepository.deleteByStudentId(event.getStudentId());
+            return;
+        }
+        Set<String> oldGrams = gramsOf(event.getBefore());
+        Set<String> newGrams = gramsOf(event.getAfter());
+        if (oldGrams.equals(newGrams)) {
+            return;
+        }
+        
+        Set<String> removed = new HashSet<>(oldGrams);
+        removed.removeAll(newGrams);
+        if (!removed.isEmpty()) {
+            trigramRepository.deleteGrams(event.getStudentId(), removed);
+        }
+        for (String gram : newGrams) {
+            if (!oldGrams.contains(gram)) {
+                entityManager.persist(new StudentNameTrigram(gram, event.getStudentId()));
+            }
+        }
+    }
+    
+    /**
+     * Backfills normalized columns and trigrams for rows written before the
+     * index existed; a no-op once the trigram table is populated.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (trigramRepository.count() > 0 || studentRepository.count() == 0) {
+            return;
+        }
+        log.info("Building student name search index");
+        long afterId = 0;
+        int indexed = 0;
+        List<Student> chunk;
+        while (!(chunk = studentRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(REBUILD_CHUNK))).isEmpty()) {
+            for (Student student : chunk) {
+                student.normalizeNames();
+                for (String gram : NameNormalizer.trigrams(NameNormalizer.fullName(student.getFirstName(), student.getLastName()))) {
+                    entityManager.persist(new StudentNameTrigram(gram, student.getId()));
+                }
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+            indexed += chunk.size();
+            entityManager.flush();
+            entityManager.clear();
+        }
+        log.info("Student name search index built for {} students", indexed);
+    }
+    
+    // LIKE pattern for a normalized term, with the term's own wildcards escaped
+    private static String containsPattern(String query) {
+        return "%" + query.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+    
+    private static Set<String> gramsOf(StudentDTO student) {
+        return student == null ? Set.of()
+                : NameNormalizer.trigrams(NameNormalizer.fullName(student.getFirstName(), student.getLastName()));
+    }
+    
+    // Null when a trigram candidate does not actually contain the term
+    private static Ranked rank(StudentDTO student, String query) {
+        String first = NameNormalizer.normalize(student.getFirstName());
+        String last = NameNormalizer.normalize(student.getLastName());
+        String fullName = first + " " + last;
+        if (first.equals(query) || last.equals(query) || fullName.equals(query)) {
+            return new Ranked(student, fullName, RANK_EXACT);
+        }
+        if (first.startsWith(query) || last.startsWith(query)) {
+            return new Ranked(student, fullName, RANK_PREFIX);
+        }
+        return fullName.contains(query) ? new Ranked(student, fullName, RANK_INFIX) : null;
+    }
+    
+    private record Ranked(StudentDTO student, String fullName, int rank) {
+    }
+}
@@ -1,18 +1,32 @@
 package com.servosys.service;
 
+import com.servosys.dto.BatchItemResult;
+import com.servosys.dto.CursorPage;
+import com.servosys.dto.StatusChangeRequest;
+import com.servosys.dto.StatusChangeResult;
 import com.servosys.dto.StudentDTO;
+import com.servosys.dto.VersionedStudent;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface StudentService {
     StudentDTO createStudent(StudentDTO studentDTO);
-    StudentDTO getStudentById(Long id);
-    List<StudentDTO> getAllStudents();
+    VersionedStudent getStudentById(Long id);
+    CursorPage<StudentDTO> getAllStudents(Long afterId, int limit);
+    void streamAllStudents(Consumer<StudentDTO> sink);
     StudentDTO updateStudent(Long id, StudentDTO studentDTO);
+    VersionedStudent patchStudent(Long id, StudentDTO changes, Set<String> fields, Set<Long> expectedVersions);
+    List<BatchItemResult> saveStudentsInBatch(List<StudentDTO> studentDTOs);
     void deleteStudent(Long id);
-    List<StudentDTO> getStudentsByDepartment(String department);
-    List<StudentDTO> searchStudentsByName(String name);
+    CursorPage<StudentDTO> getStudentsByDepartment(String department, Long afterId, int limit);
+    void streamStudentsByDepartment(String department, Consumer<StudentDTO> sink);
+    List<StudentDTO> searchStudentsByName(String name, int limit);
     StudentDTO deactivateStudent(Long id);
     StudentDTO activateStudent(Long id);
-    List<StudentDTO> getActiveStudents();
-    List<StudentDTO> getTopPerformingStudents(Integer year, Double minCgpa);
+    StatusChangeResult changeStatus(StatusChangeRequest request, boolean active);
+    CursorPage<StudentDTO> getActiveStudents(Long afterId, int limit);
+    void streamActiveStudents(Consumer<StudentDTO> sink);
+    List<StudentDTO> getTopPerformingStudents(Integer year, Double minCgpa, int limit);
+    List<StudentDTO> getTopStudents(Integer year, String department, Double minCgpa, int limit);
 }
\ No newline at end of file
@@ -1,183 +1,614 @@
 package com.servosys.service;
 
+import com.servosys.config.CacheConfig;
+import com.servosys.dto.BatchItemResult;
+import com.servosys.dto.CursorPage;
+import com.servosys.dto.StatusChangeRequest;
+import com.servosys.dto.StatusChangeResult;
 import com.servosys.dto.StudentDTO;
+import com.servosys.dto.StudentVersion;
+import com.servosys.dto.VersionedStudent;
+import com.servosys.event.StudentChangedEvent;
+import com.servosys.event.StudentYearStatusChangedEvent;
+import com.servosys.exception.PreconditionFailedException;
 import com.servosys.exception.ResourceNotFoundException;
 import com.servosys.exception.ValidationException;
 import com.servosys.model.Student;
 import com.servosys.repository.StudentRepository;
 import com.servosys.service.StudentService;
+import com.servosys.validation.CompiledValidator;
+import com.servosys.validation.Violation;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class StudentServiceImpl implements StudentService {
     
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 10_000;
+    public static final int MIN_YEAR = 1;
+    public static final int MAX_YEAR = 5;
+    
+    // Rows per flush when Hibernate is not batching JDBC statements
+    private static final int UNBATCHED_FLUSH_INTERVAL = 50;
+    private static final int IN_CLAUSE_CHUNK = 1000;
+    
+    // Fields a PATCH may set: the id comes from the path and status has its own endpoints
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("firstName", "lastName", "email",
+            "phoneNumber", "dateOfBirth", "department", "year", "cgpa");
+    
     private final StudentRepository studentRepository;
+    private final EntityManager entityManager;
+    private final CompiledValidator<StudentDTO> studentValidator;
+    private final StudentSearchService studentSearchService;
+    private final StudentLeaderboard studentLeaderboard;
+    private final DepartmentDictionary departmentDictionary;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    // Batch creates are flushed once per JDBC batch: hibernate.jdbc.batch_size when set
+    private int flushInterval;
+    
+    @PostConstruct
+    void readJdbcBatchSize() {
+        int batchSize = ConfigurationHelper.getInt(AvailableSettings.STATEMENT_BATCH_SIZE,
+                entityManager.getEntityManagerFactory().getProperties(), 0);
+        flushInterval = batchSize > 1 ? batchSize : UNBATCHED_FLUSH_INTERVAL;
+    }
     
     @Override
     @Transactional
     public StudentDTO createStudent(StudentDTO studentDTO) {
-        log.info("Creating new student with email: {}", studentDTO.getEmail());
+        log.debug("Creating new student with email: {}", studentDTO.getEmail());
         
         // Check if email already exists
-        if (studentRepository.existsByEmail(studentDTO.getEmail())) {
+        if (studentRepository.findIdByEmail(studentDTO.getEmail()) != null) {
             throw new ValidationException("Email already exists: " + studentDTO.getEmail());
         }
         
-        // Create student using builder
-        Student student = Student.builder()
-                .firstName(studentDTO.getFirstName())
-                .lastName(studentDTO.getLastName())
-                .email(studentDTO.getEmail())
-                .phoneNumber(studentDTO.getPhoneNumber())
-                .dateOfBirth(studentDTO.getDateOfBirth())
-                .department(studentDTO.getDepartment())
-                .year(studentDTO.getYear())
-                .cgpa(studentDTO.getCgpa())
-                .isActive(studentDTO.getIsActive() != null ? studentDTO.getIsActive() : true)
-                .build();
+        Student student = toEntity(studentDTO);
         
         Student savedStudent = studentRepository.save(student);
         log.info("Student created successfully with ID: {}", savedStudent.getId());
         
-        return convertToDTO(savedStudent);
+        StudentDTO created = convertToDTO(savedStudent);
+        publish(StudentChangedEvent.Type.CREATED, savedStudent.getId(), null, created);
+        return created;
     }
     
+    // sync: the row is read inside Caffeine's per-key load, which an eviction waits for (see StudentCacheEvictor).
+    // The validators are cached with the row, so a cache hit answers a conditional GET without a query.
     @Override
-    public StudentDTO getStudentById(Long id) {
-        log.info("Fetching student with ID: {}", id);
-        Student student = studentRepository.findById(id)
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.STUDENTS, key = "#id", sync = true)
+    public VersionedStudent getStudentById(Long id) {
+        log.debug("Fetching student with ID: {}", id);
+        return studentRepository.findVersionedById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Student", "id", id));
-        return convertToDTO(student);
     }
     
     @Override
-    public List<StudentDTO> getAllStudents() {
-        log.info("Fetching all students");
-        return studentRepository.findAll()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<StudentDTO> getAllStudents(Long afterId, int limit) {
+        log.debug("Fetching students after ID: {} (limit {})", afterId, limit);
+        return toPage(studentRepository.findDtosAfter(cursor(afterId), fetchLimit(limit)), limit);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllStudents(Consumer<StudentDTO> sink) {
+        log.debug("Streaming all students");
+        drain(studentRepository.streamDtos(), sink);
     }
     
     @Override
     @Transactional
     public StudentDTO updateStudent(Long id, StudentDTO studentDTO) {
-        log.info("Updating student with ID: {}", id);
+        log.debug("Updating student with ID: {}", id);
         
         Student existingStudent = studentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Student", "id", id));
         
         // Check if email is being changed and if it already exists for another student
-        if (!existingStudent.getEmail().equals(studentDTO.getEmail()) && 
-            studentRepository.existsByEmailAndIdNot(studentDTO.getEmail(), id)) {
-            throw new ValidationException("Email already exists: " + studentDTO.getEmail());
+        if (!existingStudent.getEmail().equals(studentDTO.getEmail())) {
+            Long owner = studentRepository.findIdByEmail(studentDTO.getEmail());
+            if (owner != null && !owner.equals(id)) {
+                throw new ValidationException("Email already exists: " + studentDTO.getEmail());
+            }
         }
         
-        // Update fields
-        existingStudent.setFirstName(studentDTO.getFirstName());
-        existingStudent.setLastName(studentDTO.getLastName());
-        existingStudent.setEmail(studentDTO.getEmail());
-        existingStudent.setPhoneNumber(studentDTO.getPhoneNumber());
-        existingStudent.setDateOfBirth(studentDTO.getDateOfBirth());
-        existingStudent.setDepartment(studentDTO.getDepartment());
-        existingStudent.setYear(studentDTO.getYear());
-        existingStudent.setCgpa(studentDTO.getCgpa());
+        StudentDTO before = convertToDTO(existingStudent);
+        applyUpdate(existingStudent, studentDTO);
         
         Student updatedStudent = studentRepository.save(existingStudent);
         log.info("Student updated successfully with ID: {}", id);
         
-        return convertToDTO(updatedStudent);
+        StudentDTO updated = convertToDTO(updatedStudent);
+        publish(StudentChangedEvent.Type.UPDATED, id, before, updated);
+        return updated;
     }
     
     @Override
     @Transactional
-    public void deleteStudent(Long id) {
-        log.info("Deleting student with ID: {}", id);
-        if (!studentRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Student", "id", id);
+    public VersionedStudent patchStudent(Long id, StudentDTO changes, Set<String> fields, Set<Long> expectedVersions) {
+        log.debug("Patching student with ID: {} fields: {}", id, fields);
+        
+        // Only the supplied fields are validated; the rest of the row was valid when it was written
+        for (String field : fields) {
+            if (!PATCHABLE_FIELDS.contains(field)) {
+                throw new ValidationException("Field cannot be patched: " + field);
+            }
         }
-        studentRepository.deleteById(id);
-        log.info("Student deleted successfully with ID: {}", id);
+        List<Violation> violations = studentValidator.validateFields(changes, fields);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(describe(violations));
+        }
+        
+        Student student = studentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Student", "id", id));
+        if (expectedVersions != null && !expectedVersions.contains(student.getVersion())) {
+            throw new PreconditionFailedException("Student " + id + " is at version " + student.getVersion()
+                    + ", which If-Match does not name");
+        }
+        if (fields.contains("email") && !student.getEmail().equals(changes.getEmail())) {
+            Long owner = studentRepository.findIdByEmail(changes.getEmail());
+            if (owner != null && !owner.equals(id)) {
+                throw new ValidationException("Email already exists: " + changes.getEmail());
+            }
+        }
+        
+        StudentDTO before = convertToDTO(student);
+        for (String field : fields) {
+            applyField(student, field, changes);
+        }
+        // Flushed here so the response carries the new version. Values equal to the current
+        // ones leave the entity clean: no UPDATE, no version bump, no event. Through the
+        // repository, so a @Version conflict surfaces as Spring's OptimisticLockingFailureException.
+        studentRepository.flush();
+        
+        StudentDTO after = convertToDTO(student);
+        if (!after.equals(before)) {
+            log.info("Student patched successfully with ID: {}", id);
+            publish(StudentChangedEvent.Type.UPDATED, id, before, after);
+        }
+        return new VersionedStudent(after, new StudentVersion(student.getVersion(), student.getUpdatedAt()));
     }
     
     @Override
-    public List<StudentDTO> getStudentsByDepartment(String department) {
-        log.info("Fetching students by department: {}", department);
-        return studentRepository.findByDepartment(department)
+    @Transactional
+    public List<BatchItemResult> saveStudentsInBatch(List<StudentDTO> studentDTOs) {
+        log.debug("Processing batch of {} students", studentDTOs.size());
+        if (studentDTOs.isEmpty() || studentDTOs.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Batch size must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        
+        BatchItemResult[] results = new BatchItemResult[studentDTOs.size()];
+        List<Integer> accepted = new ArrayList<>();
+        Map<String, Integer> firstIndexByEmail = new HashMap<>();
+        
+        // Validate every item and catch duplicate emails inside the payload itself
+        for (int i = 0; i < studentDTOs.size(); i++) {
+            StudentDTO dto = studentDTOs.get(i);
+            if (dto == null) {
+                results[i] = BatchItemResult.failed(i, null, null, "Student payload is required");
+                continue;
+            }
+            List<Violation> violations = studentValidator.validate(dto);
+            if (!violations.isEmpty()) {
+                results[i] = BatchItemResult.failed(i, dto.getId(), dto.getEmail(), describe(violations));
+                continue;
+            }
+            Integer firstIndex = firstIndexByEmail.putIfAbsent(dto.getEmail(), i);
+            if (firstIndex != null) {
+                results[i] = BatchItemResult.failed(i, dto.getId(), dto.getEmail(),
+                        "Duplicate email in batch (same as item " + firstIndex + "): " + dto.getEmail());
+                continue;
+            }
+            accepted.add(i);
+        }
+        
+        // One query for the rows being updated and one per chunk for emails already taken
+        Set<Long> updateIds = accepted.stream()
+                .map(i -> studentDTOs.get(i).getId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Student> existing = studentRepository.findAllById(updateIds)
                 .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        Map<String, Long> emailOwners = findEmailOwners(accepted.stream()
+                .map(i -> studentDTOs.get(i).getEmail())
+                .collect(Collectors.toList()));
+        
+        // Rows this batch moves to another email, by id
+        Map<Long, Integer> moving = new HashMap<>();
+        Set<Integer> pending = new LinkedHashSet<>();
+        for (int i : accepted) {
+            StudentDTO dto = studentDTOs.get(i);
+            if (dto.getId() == null) {
+                pending.add(i);
+                continue;
+            }
+            Student student = existing.get(dto.getId());
+            if (student == null) {
+                results[i] = BatchItemResult.failed(i, dto.getId(), dto.getEmail(),
+                        String.format("Student not found with id : '%s'", dto.getId()));
+                continue;
+            }
+            pending.add(i);
+            if (!student.getEmail().equals(dto.getEmail())) {
+                moving.put(dto.getId(), i);
+            }
+        }
+        
+        // Emails are checked against the batch's final state: an email is free if its owner
+        // moves off it in this batch, so rows can swap emails. Rejecting an item can take such
+        // a move back, which is why this runs until nothing changes.
+        boolean rejected;
+        do {
+            rejected = false;
+            for (Iterator<Integer> it = pending.iterator(); it.hasNext(); ) {
+                int i = it.next();
+                StudentDTO dto = studentDTOs.get(i);
+                Long owner = emailOwners.get(dto.getEmail());
+                if (owner != null && !owner.equals(dto.getId()) && !moving.containsKey(owner)) {
+                    results[i] = BatchItemResult.failed(i, dto.getId(), dto.getEmail(), "Email already exists: " + dto.getEmail());
+                    it.remove();
+                    if (dto.getId() != null) {
+                        moving.remove(dto.getId());
+                    }
+                    rejected = true;
+                }
+            }
+        } while (rejected);
+        
+        // Rows giving up an email that another row in the batch takes over are parked on a
+        // placeholder first, so no UPDATE in the flush below collides with the unique key
+        Set<String> claimed = new HashSet<>();
+        pending.forEach(i -> claimed.add(studentDTOs.get(i).getEmail()));
+        List<Long> parked = moving.keySet().stream()
+                .filter(id -> claimed.contains(existing.get(id).getEmail()))
+                .toList();
+        if (!parked.isEmpty()) {
+            studentRepository.parkEmails(parked);
+        }
+        
+        // Updates first while their entities are still managed, then creates in flushed chunks
+        List<Integer> createdIndexes = new ArrayList<>();
+        int updated = 0;
+        for (int i : pending) {
+            StudentDTO dto = studentDTOs.get(i);
+            if (dto.getId() == null) {
+                createdIndexes.add(i);
+                continue;
+            }
+            Student student = existing.get(dto.getId());
+            StudentDTO before = convertToDTO(student);
+            applyUpdate(student, dto);
+            publish(StudentChangedEvent.Type.UPDATED, student.getId(), before, convertToDTO(student));
+            results[i] = BatchItemResult.updated(i, student.getId(), student.getEmail());
+            updated++;
+        }
+        entityManager.flush();
+        entityManager.clear();
+        
+        for (int n = 0; n < createdIndexes.size(); n++) {
+            int i = createdIndexes.get(n);
+            Student student = toEntity(studentDTOs.get(i));
+            entityManager.persist(student);
+            publish(StudentChangedEvent.Type.CREATED, student.getId(), null, convertToDTO(student));
+            results[i] = BatchItemResult.created(i, student.getId(), student.getEmail());
+            if ((n + 1) % flushInterval == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        
+        log.info("Batch processed: {} created, {} updated, {} failed", createdIndexes.size(),
+                updated, studentDTOs.size() - createdIndexes.size() - updated);
+        return Arrays.asList(results);
     }
     
     @Override
-    public List<StudentDTO> searchStudentsByName(String name) {
-        log.info("Searching students by name: {}", name);
-        return studentRepository.findByNameContaining(name)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional
+    public void deleteStudent(Long id) {
+        log.debug("Deleting student with ID: {}", id);
+        StudentDTO before = studentRepository.findDtoById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Student", "id", id));
+        studentRepository.deleteDirectlyById(id);
+        publish(StudentChangedEvent.Type.DELETED, id, before, null);
+        log.info("Student deleted successfully with ID: {}", id);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<StudentDTO> getStudentsByDepartment(String department, Long afterId, int limit) {
+        log.debug("Fetching students by department: {} after ID: {} (limit {})", department, afterId, limit);
+        Limit fetchLimit = fetchLimit(limit);
+        // Resolved once against the dictionary; a name it does not know cannot match a row
+        if (departmentDictionary.find(department) == null) {
+            return toPage(List.of(), limit);
+        }
+        return toPage(studentRepository.findDtosByDepartmentAfter(
+                department, cursor(afterId), fetchLimit), limit);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void streamStudentsByDepartment(String department, Consumer<StudentDTO> sink) {
+        log.debug("Streaming students by department: {}", department);
+        if (departmentDictionary.find(department) == null) {
+            return;
+        }
+        drain(studentRepository.streamDtosByDepartment(department), sink);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentDTO> searchStudentsByName(String name, int limit) {
+        log.debug("Searching students by name: {}", name);
+        return studentSearchService.search(name, limit);
     }
     
     @Override
     @Transactional
     public StudentDTO deactivateStudent(Long id) {
-        log.info("Deactivating student with ID: {}", id);
-        Student student = studentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Student", "id", id));
-        student.setIsActive(false);
-        Student updatedStudent = studentRepository.save(student);
-        return convertToDTO(updatedStudent);
+        log.debug("Deactivating student with ID: {}", id);
+        return changeStatusById(id, false);
     }
     
     @Override
     @Transactional
     public StudentDTO activateStudent(Long id) {
-        log.info("Activating student with ID: {}", id);
-        Student student = studentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Student", "id", id));
-        student.setIsActive(true);
-        Student updatedStudent = studentRepository.save(student);
-        return convertToDTO(updatedStudent);
+        log.debug("Activating student with ID: {}", id);
+        return changeStatusById(id, true);
     }
     
     @Override
-    public List<StudentDTO> getActiveStudents() {
-        log.info("Fetching all active students");
-        return studentRepository.findByIsActive(true)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional
+    public StatusChangeResult changeStatus(StatusChangeRequest request, boolean active) {
+        boolean byIds = request.getIds() != null;
+        if (byIds == (request.getYear() != null)) {
+            throw new ValidationException("Provide either ids or year");
+        }
+        if (byIds && (request.getIds().isEmpty() || request.getIds().size() > MAX_BATCH_SIZE)) {
+            throw new ValidationException("Ids must contain between 1 and " + MAX_BATCH_SIZE + " entries");
+        }
+        log.debug("{} students by {}", active ? "Activating" : "Deactivating", byIds ? "ids" : "year " + request.getYear());
+        
+        LocalDateTime now = now();
+        if (!byIds) {
+            // One UPDATE for the whole year and one event for all of it: listeners rebuild or
+            // drop what they derived from that year instead of handling a row at a time
+            int changed = studentRepository.updateActiveByYear(request.getYear(), active, now);
+            if (changed > 0) {
+                eventPublisher.publishEvent(new StudentYearStatusChangedEvent(request.getYear(), active, changed));
+            }
+            log.info("{} {} students of year {}", active ? "Activated" : "Deactivated", changed, request.getYear());
+            return new StatusChangeResult(changed, null);
+        }
+        
+        // Per chunk of ids: lock and read the rows that will change, then one UPDATE
+        List<Long> ids = new ArrayList<>(request.getIds());
+        List<Long> changedIds = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK, ids.size()));
+            List<StudentDTO> before = studentRepository.lockDtosToChangeActive(chunk, active);
+            if (!before.isEmpty()) {
+                studentRepository.updateActiveByIdIn(chunk, active, now);
+                for (StudentDTO student : before) {
+                    publishStatusChange(student, active);
+                    changedIds.add(student.getId());
+                }
+            }
+        }
+        log.info("{} {} students", active ? "Activated" : "Deactivated", changedIds.size());
+        return new StatusChangeResult(changedIds.size(), changedIds);
     }
     
     @Override
-    public List<StudentDTO> getTopPerformingStudents(Integer year, Double minCgpa) {
-        log.info("Fetching top performing students for year: {} with CGPA >= {}", year, minCgpa);
-        return studentRepository.findByYearAndCgpaGreaterThanEqual(year, minCgpa)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-    }
-    
-    private StudentDTO convertToDTO(Student student) {
-        return StudentDTO.builder()
-                .id(student.getId())
-                .firstName(student.getFirstName())
-                .lastName(student.getLastName())
-                .email(student.getEmail())
-                .phoneNumber(student.getPhoneNumber())
-                .dateOfBirth(student.getDateOfBirth())
-                .department(student.getDepartment())
-                .year(student.getYear())
-                .cgpa(student.getCgpa())
-                .isActive(student.getIsActive())
+    @Transactional(readOnly = true)
+    public CursorPage<StudentDTO> getActiveStudents(Long afterId, int limit) {
+        log.debug("Fetching active students after ID: {} (limit {})", afterId, limit);
+        return toPage(studentRepository.findDtosByIsActiveAfter(
+                true, cursor(afterId), fetchLimit(limit)), limit);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void streamActiveStudents(Consumer<StudentDTO> sink) {
+        log.debug("Streaming active students");
+        drain(studentRepository.streamDtosByIsActive(true), sink);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentDTO> getTopPerformingStudents(Integer year, Double minCgpa, int limit) {
+        log.debug("Fetching top {} performing students for year: {} with CGPA >= {}", limit, year, minCgpa);
+        checkYear(year);
+        checkLimit(limit);
+        return studentRepository.findTopByYear(year, minCgpa, Limit.of(limit));
+    }
+    
+    // Not transactional: a leaderboard hit must not check out a connection
+    @Override
+    public List<StudentDTO> getTopStudents(Integer year, String department, Double minCgpa, int limit) {
+        log.debug("Fetching top {} students for year: {} department: {}", limit, year, department);
+        if (year == null && department == null) {
+            throw new ValidationException("Provide a year or a department");
+        }
+        if (year != null) {
+            checkYear(year);
+        }
+        checkLimit(limit);
+        double min = minCgpa != null ? minCgpa : 0.0;
+        if (department == null) {
+            List<StudentDTO> top = studentLeaderboard.top(year, min, limit);
+            return top != null ? top : studentRepository.findTopByYear(year, min, Limit.of(limit));
+        }
+        if (departmentDictionary.find(department) == null) {
+            return List.of();
+        }
+        return year == null
+                ? studentRepository.findTopByDepartment(department, min, Limit.of(limit))
+                : studentRepository.findTopByDepartmentAndYear(department, year, min, Limit.of(limit));
+    }
+    
+    private Map<String, Long> findEmailOwners(List<String> emails) {
+        Map<String, Long> owners = new HashMap<>();
+        for (int from = 0; from < emails.size(); from += IN_CLAUSE_CHUNK) {
+            List<String> chunk = emails.subList(from, Math.min(from + IN_CLAUSE_CHUNK, emails.size()));
+            studentRepository.findEmailOwners(chunk)
+                    .forEach(owner -> owners.put(owner.getEmail(), owner.getId()));
+        }
+        return owners;
+    }
+    
+    private static String describe(List<Violation> violations) {
+        return violations.stream()
+                .map(v -> v.field() + ": " + v.message())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+    
+    private Student toEntity(StudentDTO studentDTO) {
+        departmentDictionary.resolve(studentDTO.getDepartment());
+        return Student.builder()
+                .firstName(studentDTO.getFirstName())
+                .lastName(studentDTO.getLastName())
+                .email(studentDTO.getEmail())
+                .phoneNumber(studentDTO.getPhoneNumber())
+                .dateOfBirth(studentDTO.getDateOfBirth())
+                .department(studentDTO.getDepartment())
+                .year(studentDTO.getYear())
+                .cgpa(studentDTO.getCgpa())
+                .isActive(studentDTO.getIsActive() != null ? studentDTO.getIsActive() : true)
                 .build();
     }
+    
+    private void applyUpdate(Student student, StudentDTO studentDTO) {
+        departmentDictionary.resolve(studentDTO.getDepartment());
+        student.setFirstName(studentDTO.getFirstName());
+        student.setLastName(studentDTO.getLastName());
+        student.setEmail(studentDTO.getEmail());
+        student.setPhoneNumber(studentDTO.getPhoneNumber());
+        student.setDateOfBirth(studentDTO.getDateOfBirth());
+        student.setDepartment(studentDTO.getDepartment());
+        student.setYear(studentDTO.getYear());
+        student.setCgpa(studentDTO.getCgpa());
+    }
+    
+    private void applyField(Student student, String field, StudentDTO changes) {
+        switch (field) {
+            case "firstName" -> student.setFirstName(changes.getFirstName());
+            case "lastName" -> student.setLastName(changes.getLastName());
+            case "email" -> student.setEmail(changes.getEmail());
+            case "phoneNumber" -> student.setPhoneNumber(changes.getPhoneNumber());
+            case "dateOfBirth" -> student.setDateOfBirth(changes.getDateOfBirth());
+            case "department" -> {
+                departmentDictionary.resolve(changes.getDepartment());
+                student.setDepartment(changes.getDepartment());
+            }
+            case "year" -> student.setYear(changes.getYear());
+            case "cgpa" -> student.setCgpa(changes.getCgpa());
+            default -> throw new IllegalArgumentException("Not a patchable field: " + field);
+        }
+    }
+    
+    // Single-row status change: lock and read the row if it will change, then UPDATE. A student
+    // already in the target state is read and returned as-is, and no event is published.
+    private StudentDTO changeStatusById(Long id, boolean active) {
+        List<StudentDTO> before = studentRepository.lockDtosToChangeActive(List.of(id), active);
+        if (before.isEmpty()) {
+            return studentRepository.findDtoById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Student", "id", id));
+        }
+        studentRepository.updateActiveById(id, active, now());
+        return publishStatusChange(before.get(0), active);
+    }
+    
+    // Status UPDATEs only touch is_active and updated_at, so the locked before-state with the
+    // new flag is the after-state. The before-state keeps its real flag, which may be null.
+    private StudentDTO publishStatusChange(StudentDTO before, boolean active) {
+        StudentDTO after = new StudentDTO(before.getId(), before.getFirstName(), before.getLastName(),
+                before.getEmail(), before.getPhoneNumber(), before.getDateOfBirth(), before.getDepartment(),
+                before.getYear(), before.getCgpa(), active);
+        StudentChangedEvent.Type type = active ? StudentChangedEvent.Type.ACTIVATED : StudentChangedEvent.Type.DEACTIVATED;
+        publish(type, before.getId(), before, after);
+        return after;
+    }
+    
+    // Matches the TIMESTAMP(6) column, so the stamp is exactly what is read back later
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+    
+    private void publish(StudentChangedEvent.Type type, Long id, StudentDTO before, StudentDTO after) {
+        eventPublisher.publishEvent(new StudentChangedEvent(type, id, before, after));
+    }
+    
+    private static Long cursor(Long afterId) {
+        return afterId != null ? afterId : 0L;
+    }
+    
+    // One extra row tells us whether there is a next page without a COUNT query
+    private static Limit fetchLimit(int limit) {
+        checkLimit(limit);
+        return Limit.of(limit + 1);
+    }
+    
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+    
+    // Same range as StudentDTO.year, so a ranking can only be asked for a year a student can have
+    private static void checkYear(Integer year) {
+        if (year == null || year < MIN_YEAR || year > MAX_YEAR) {
+            throw new ValidationException("Year must be between " + MIN_YEAR + " and " + MAX_YEAR);
+        }
+    }
+    
+    private static CursorPage<StudentDTO> toPage(List<StudentDTO> rows, int limit) {
+        return CursorPage.of(rows, limit, StudentDTO::getId);
+    }
+    
+    private static void drain(Stream<StudentDTO> students, Consumer<StudentDTO> sink) {
+        try (students) {
+            students.forEach(sink);
+        }
+    }
+    
+    private static StudentDTO convertToDTO(Student student) {
+        return StudentMapper.toDto(student);
+    }
 }
\ No newline at end of file
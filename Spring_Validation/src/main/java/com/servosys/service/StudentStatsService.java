@@ -0,0 +1,195 @@
+package com.servosys.service;
+
+import com.servosys.dto.StudentDTO;
+import com.servosys.dto.StudentStats;
+import com.servosys.dto.StudentStatsReport;
+import com.servosys.event.StudentChangedEvent;
+import com.servosys.event.StudentYearStatusChangedEvent;
+import com.servosys.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Per department/year aggregates kept in memory and updated from committed
+ * {@link StudentChangedEvent}s and {@link StudentYearStatusChangedEvent}s, so a
+ * stats read costs O(cohorts) rather than a scan of the students table. Built
+ * from a GROUP BY query before the web server starts taking requests, and
+ * kept current without re-reading the table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentStatsService implements SmartInitializingSingleton {
+    
+    static final int HISTOGRAM_BUCKETS = 10;
+    
+    private static final Comparator<StudentStats> BY_DEPARTMENT_AND_YEAR = Comparator
+            .comparing(StudentStats::getDepartment, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(StudentStats::getYear, Comparator.nullsFirst(Comparator.naturalOrder()));
+    
+    private final StudentRepository studentRepository;
+    
+    // Guarded by this
+    private final Map<CohortKey, Aggregate> cohorts = new HashMap<>();
+    
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+    
+    public synchronized void rebuild() {
+        cohorts.clear();
+        for (StudentRepository.StatsRow row : studentRepository.findStatsRows()) {
+            cohorts.computeIfAbsent(new CohortKey(row.getDepartment(), row.getYear()), key -> new Aggregate())
+                    .add(Boolean.TRUE.equals(row.getActive()), row.getCgpa(), row.getStudents());
+        }
+        log.info("Student stats rebuilt: {} cohorts", cohorts.size());
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onStudentChanged(StudentChangedEvent event) {
+        apply(event.getBefore(), -1);
+        apply(event.getAfter(), 1);
+    }
+    
+    // A whole year changed at once carries no per-student states, but needs none: every student
+    // of the year now has the new status, so each of its cohorts is all active or all inactive.
+    // Counts and CGPAs stay as they are.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onYearStatusChanged(StudentYearStatusChangedEvent event) {
+        cohorts.forEach((key, aggregate) -> {
+            if (Objects.equals(key.year(), event.getYear())) {
+                aggregate.setAllActive(event.isActive());
+            }
+        });
+    }
+    
+    public synchronized StudentStatsReport getStats() {
+        Aggregate overall = new Aggregate();
+        Map<String, Aggregate> departments = new HashMap<>();
+        List<StudentStats> cohortStats = new ArrayList<>(cohorts.size());
+        for (Map.Entry<CohortKey, Aggregate> entry : cohorts.entrySet()) {
+            CohortKey key = entry.getKey();
+            Aggregate aggregate = entry.getValue();
+            overall.merge(aggregate);
+            departments.computeIfAbsent(key.department(), department -> new Aggregate()).merge(aggregate);
+            cohortStats.add(aggregate.toStats(key.department(), key.year()));
+        }
+        List<StudentStats> departmentStats = new ArrayList<>(departments.size());
+        departments.forEach((department, aggregate) -> departmentStats.add(aggregate.toStats(department, null)));
+        departmentStats.sort(BY_DEPARTMENT_AND_YEAR);
+        cohortStats.sort(BY_DEPARTMENT_AND_YEAR);
+        return new StudentStatsReport(overall.toStats(null, null), departmentStats, cohortStats);
+    }
+    
+    private void apply(StudentDTO student, int sign) {
+        if (student == null) {
+            return;
+        }
+        CohortKey key = new CohortKey(student.getDepartment(), student.getYear());
+        boolean active = Boolean.TRUE.equals(student.getIsActive());
+        if (sign > 0) {
+            cohorts.computeIfAbsent(key, k -> new Aggregate()).add(active, student.getCgpa(), 1);
+            return;
+        }
+        Aggregate aggregate = cohorts.get(key);
+        if (aggregate == null) {
+            log.warn("Stats out of sync: no cohort {} for student {}", key, student.getId());
+            return;
+        }
+        aggregate.remove(active, student.getCgpa());
+        if (aggregate.count == 0) {
+            cohorts.remove(key);
+        }
+    }
+    
+    private record CohortKey(String department, Integer year) {
+    }
+    
+    /**
+     * Counts plus the CGPA distribution of a group. The sum is a BigDecimal so
+     * repeated add/remove never drifts; the CGPA multiset keeps min and max
+     * correct when students leave the group.
+     */
+    private static final class Aggregate {
+        
+        private long count;
+        private long active;
+        private long graded;
+        private BigDecimal cgpaSum = BigDecimal.ZERO;
+        private final TreeMap<Double, Long> cgpas = new TreeMap<>();
+        private final long[] histogram = new long[HISTOGRAM_BUCKETS];
+        
+        void add(boolean isActive, Double cgpa, long students) {
+            count += students;
+            if (isActive) {
+                active += students;
+            }
+            if (cgpa != null) {
+                graded += students;
+                cgpaSum = cgpaSum.add(BigDecimal.valueOf(cgpa).multiply(BigDecimal.valueOf(students)));
+                cgpas.merge(cgpa, students, Long::sum);
+                histogram[bucket(cgpa)] += students;
+            }
+        }
+        
+        void remove(boolean isActive, Double cgpa) {
+            count--;
+            if (isActive) {
+                active--;
+            }
+            if (cgpa != null) {
+                graded--;
+                cgpaSum = cgpaSum.subtract(BigDecimal.valueOf(cgpa));
+                cgpas.computeIfPresent(cgpa, (value, students) -> students > 1 ? students - 1 : null);
+                histogram[bucket(cgpa)]--;
+            }
+        }
+        
+        void setAllActive(boolean isActive) {
+            active = isActive ? count : 0;
+        }
+        
+        void merge(Aggregate other) {
+            count += other.count;
+            active += other.active;
+            graded += other.graded;
+            cgpaSum = cgpaSum.add(other.cgpaSum);
+            if (!other.cgpas.isEmpty()) {
+                // Only the extremes matter for a merged view
+                cgpas.merge(other.cgpas.firstKey(), 1L, Long::sum);
+                cgpas.merge(other.cgpas.lastKey(), 1L, Long::sum);
+            }
+            for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+                histogram[i] += other.histogram[i];
+            }
+        }
+        
+        StudentStats toStats(String department, Integer year) {
+            Double average = graded == 0 ? null
+                    : cgpaSum.divide(BigDecimal.valueOf(graded), MathContext.DECIMAL64).doubleValue();
+            return new StudentStats(department, year, count, active, count - active, average,
+                    cgpas.isEmpty() ? null : cgpas.firstKey(),
+                    cgpas.isEmpty() ? null : cgpas.lastKey(),
+                    histogram.clone());
+        }
+        
+        private static int bucket(double cgpa) {
+            return Math.max(0, Math.min((int) cgpa, HISTOGRAM_BUCKETS - 1));
+        }
+    }
+}
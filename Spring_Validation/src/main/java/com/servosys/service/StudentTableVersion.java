@@ -0,0 +1,50 @@
+package com.servosys.service;
+
+import com.servosys.event.StudentChangedEvent;
+import com.servosys.event.StudentYearStatusChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A counter bumped after every committed student change, used to build the
+ * validators for collection responses. Readers must take the version before querying:
+ * a write racing the query then only makes the response look older than it
+ * is, never newer.
+ */
+@Component
+public class StudentTableVersion {
+    
+    // The counter restarts at zero with the process; the start time keeps old ETags from matching
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicReference<Version> current = new AtomicReference<>(new Version(0, System.currentTimeMillis()));
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        bump();
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onYearStatusChanged(StudentYearStatusChangedEvent event) {
+        bump();
+    }
+    
+    private void bump() {
+        long now = System.currentTimeMillis();
+        current.updateAndGet(version -> new Version(version.number() + 1, now));
+    }
+    
+    public Version current() {
+        return current.get();
+    }
+    
+    // Opaque token for ETags: changes on every committed write and on restart
+    public String tag(Version version) {
+        return epoch + "-" + version.number();
+    }
+    
+    public record Version(long number, long lastModified) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.servosys.util;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalization shared by the stored search columns, the trigram index and
+ * incoming search terms, so all three always agree.
+ */
+public final class NameNormalizer {
+    
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    private NameNormalizer() {
+    }
+    
+    // "  José  María " -> "jose maria"
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(stripped.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+    
+    public static String fullName(String firstName, String lastName) {
+        return normalize(firstName) + " " + normalize(lastName);
+    }
+    
+    public static Set<String> trigrams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + 3));
+        }
+        return grams;
+    }
+    
+    // Smallest string greater than every string starting with the prefix, for index range scans
+    public static String prefixUpperBound(String prefix) {
+        char last = prefix.charAt(prefix.length() - 1);
+        return prefix.substring(0, prefix.length() - 1) + (char) (last + 1);
+    }
+}
@@ -0,0 +1,63 @@
+package com.servosys.validation;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * MVC validator that runs the {@link CompiledValidator} registered for a target's
+ * class and hands every other class (and any validation hints/groups) to the
+ * regular Bean Validation adapter. Violations are rejected with the same field,
+ * code and message Hibernate Validator would report.
+ */
+public class CompiledBeanValidator implements SmartValidator {
+    
+    private final Map<Class<?>, CompiledValidator<?>> compiled;
+    private final SmartValidator fallback;
+    
+    public CompiledBeanValidator(List<CompiledValidator<?>> validators, SmartValidator fallback) {
+        this.compiled = validators.stream()
+                .collect(Collectors.toUnmodifiableMap(CompiledValidator::getType, Function.identity()));
+        this.fallback = fallback;
+    }
+    
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return compiled.containsKey(clazz) || fallback.supports(clazz);
+    }
+    
+    @Override
+    public void validate(Object target, Errors errors) {
+        if (!validateCompiled(target, errors)) {
+            fallback.validate(target, errors);
+        }
+    }
+    
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        if (validationHints.length > 0 || !validateCompiled(target, errors)) {
+            fallback.validate(target, errors, validationHints);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private boolean validateCompiled(Object target, Errors errors) {
+        CompiledValidator<Object> validator = (CompiledValidator<Object>) compiled.get(target.getClass());
+        if (validator == null) {
+            return false;
+        }
+        for (Violation violation : validator.validate(target)) {
+            errors.rejectValue(violation.field(), violation.code(), violation.message());
+        }
+        return true;
+    }
+    
+    @Override
+    public <T> T unwrap(Class<T> type) {
+        return fallback.unwrap(type);
+    }
+}
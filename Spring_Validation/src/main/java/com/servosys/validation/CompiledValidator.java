@@ -0,0 +1,82 @@
+package com.servosys.validation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The constraint set of one class, flattened by {@link ConstraintCompiler} into
+ * per-field accessor + check arrays. Validation is a straight loop over those
+ * arrays: no reflection, no metadata lookups and no allocation when the bean is valid.
+ */
+public final class CompiledValidator<T> {
+    
+    private final Class<T> type;
+    private final FieldRule[] rules;
+    private final Map<String, FieldRule> rulesByField;
+    
+    CompiledValidator(Class<T> type, List<FieldRule> rules) {
+        this.type = type;
+        this.rules = rules.toArray(new FieldRule[0]);
+        this.rulesByField = rules.stream()
+                .collect(Collectors.toUnmodifiableMap(FieldRule::field, Function.identity()));
+    }
+    
+    public Class<T> getType() {
+        return type;
+    }
+    
+    public boolean isConstrained(String field) {
+        return rulesByField.containsKey(field);
+    }
+    
+    /**
+     * Checks every constrained field; violations come back in declaration order.
+     */
+    public List<Violation> validate(T bean) {
+        List<Violation> violations = null;
+        for (FieldRule rule : rules) {
+            violations = rule.check(bean, violations);
+        }
+        return violations != null ? violations : List.of();
+    }
+    
+    /**
+     * Checks only the named fields, e.g. the ones present in a partial update.
+     * Unconstrained names are ignored.
+     */
+    public List<Violation> validateFields(T bean, Collection<String> fields) {
+        List<Violation> violations = null;
+        for (String field : fields) {
+            FieldRule rule = rulesByField.get(field);
+            if (rule != null) {
+                violations = rule.check(bean, violations);
+            }
+        }
+        return violations != null ? violations : List.of();
+    }
+    
+    @FunctionalInterface
+    interface Check {
+        boolean isValid(Object value);
+    }
+    
+    record FieldRule(String field, Function<Object, Object> accessor, Check[] checks, String[] codes, String[] messages) {
+        
+        List<Violation> check(Object bean, List<Violation> violations) {
+            Object value = accessor.apply(bean);
+            for (int i = 0; i < checks.length; i++) {
+                if (!checks[i].isValid(value)) {
+                    if (violations == null) {
+                        violations = new ArrayList<>(4);
+                    }
+                    violations.add(new Violation(field, codes[i], messages[i]));
+                }
+            }
+            return violations;
+        }
+    }
+}
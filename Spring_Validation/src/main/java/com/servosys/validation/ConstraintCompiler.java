@@ -0,0 +1,258 @@
+package com.servosys.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Past;
+import jakarta.validation.constraints.Size;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the Jakarta constraint annotations on a class's fields into a
+ * {@link CompiledValidator}. All reflection happens here, once, at startup:
+ * getters become {@link LambdaMetafactory} functions, regexes and decimal
+ * bounds are pre-built. Constraints it does not understand (or groups and
+ * message templates) fail compilation instead of being silently skipped.
+ */
+public final class ConstraintCompiler {
+    
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    
+    private ConstraintCompiler() {
+    }
+    
+    public static <T> CompiledValidator<T> compile(Class<T> type) {
+        return compile(type, Clock.systemDefaultZone());
+    }
+    
+    public static <T> CompiledValidator<T> compile(Class<T> type, Clock clock) {
+        List<CompiledValidator.FieldRule> rules = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            List<CompiledValidator.Check> checks = new ArrayList<>();
+            List<String> codes = new ArrayList<>();
+            List<String> messages = new ArrayList<>();
+            for (Annotation annotation : field.getAnnotations()) {
+                if (!annotation.annotationType().isAnnotationPresent(Constraint.class)) {
+                    continue;
+                }
+                checks.add(compileCheck(annotation, field, clock));
+                codes.add(annotation.annotationType().getSimpleName());
+                messages.add(message(annotation, field));
+            }
+            if (!checks.isEmpty()) {
+                rules.add(new CompiledValidator.FieldRule(field.getName(), accessor(type, field),
+                        checks.toArray(new CompiledValidator.Check[0]),
+                        codes.toArray(new String[0]),
+                        messages.toArray(new String[0])));
+            }
+        }
+        return new CompiledValidator<>(type, rules);
+    }
+    
+    private static CompiledValidator.Check compileCheck(Annotation annotation, Field field, Clock clock) {
+        if (annotation instanceof NotNull) {
+            return value -> value != null;
+        }
+        if (annotation instanceof NotBlank) {
+            return value -> value != null && !value.toString().trim().isEmpty();
+        }
+        if (annotation instanceof Size size) {
+            int min = size.min();
+            int max = size.max();
+            return value -> {
+                if (value == null) {
+                    return true;
+                }
+                int length = value instanceof CharSequence chars ? chars.length() : ((Collection<?>) value).size();
+                return length >= min && length <= max;
+            };
+        }
+        if (annotation instanceof Email email) {
+            if (!".*".equals(email.regexp())) {
+                throw unsupported(annotation, field, "custom regexp");
+            }
+            return value -> EmailCheck.isValid((CharSequence) value);
+        }
+        if (annotation instanceof jakarta.validation.constraints.Pattern pattern) {
+            int flags = 0;
+            for (jakarta.validation.constraints.Pattern.Flag flag : pattern.flags()) {
+                flags |= flag.getValue();
+            }
+            Pattern compiled = Pattern.compile(pattern.regexp(), flags);
+            return value -> value == null || compiled.matcher((CharSequence) value).matches();
+        }
+        if (annotation instanceof Past) {
+            return compilePast(field, clock);
+        }
+        if (annotation instanceof Min min) {
+            long bound = min.value();
+            return value -> value == null || !isNaN(value) && compare((Number) value, bound) >= 0;
+        }
+        if (annotation instanceof Max max) {
+            long bound = max.value();
+            return value -> value == null || !isNaN(value) && compare((Number) value, bound) <= 0;
+        }
+        if (annotation instanceof DecimalMin min) {
+            DecimalBound bound = new DecimalBound(new BigDecimal(min.value()));
+            boolean inclusive = min.inclusive();
+            return value -> {
+                if (value == null) {
+                    return true;
+                }
+                if (isNaN(value)) {
+                    return false;
+                }
+                int comparison = bound.compareValue((Number) value);
+                return inclusive ? comparison >= 0 : comparison > 0;
+            };
+        }
+        if (annotation instanceof DecimalMax max) {
+            DecimalBound bound = new DecimalBound(new BigDecimal(max.value()));
+            boolean inclusive = max.inclusive();
+            return value -> {
+                if (value == null) {
+                    return true;
+                }
+                if (isNaN(value)) {
+                    return false;
+                }
+                int comparison = bound.compareValue((Number) value);
+                return inclusive ? comparison <= 0 : comparison < 0;
+            };
+        }
+        throw unsupported(annotation, field, "constraint type");
+    }
+    
+    private static CompiledValidator.Check compilePast(Field field, Clock clock) {
+        Class<?> type = field.getType();
+        if (type == LocalDate.class) {
+            return value -> value == null || ((LocalDate) value).isBefore(LocalDate.now(clock));
+        }
+        if (type == LocalDateTime.class) {
+            return value -> value == null || ((LocalDateTime) value).isBefore(LocalDateTime.now(clock));
+        }
+        if (type == Instant.class) {
+            return value -> value == null || ((Instant) value).isBefore(clock.instant());
+        }
+        throw new IllegalStateException("@Past is not supported on " + type.getName() + " field " + field.getName());
+    }
+    
+    // Hibernate Validator rejects NaN against any numeric bound
+    private static boolean isNaN(Object value) {
+        return value instanceof Double d && d.isNaN() || value instanceof Float f && f.isNaN();
+    }
+    
+    // Integral values compare exactly; floating-point values compare as doubles
+    private static int compare(Number value, long bound) {
+        if (value instanceof Double || value instanceof Float) {
+            return Double.compare(value.doubleValue(), bound);
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.compareTo(BigDecimal.valueOf(bound));
+        }
+        if (value instanceof BigInteger integer) {
+            return integer.compareTo(BigInteger.valueOf(bound));
+        }
+        return Long.compare(value.longValue(), bound);
+    }
+    
+    private static String message(Annotation annotation, Field field) {
+        try {
+            Object groups = annotation.annotationType().getMethod("groups").invoke(annotation);
+            if (((Class<?>[]) groups).length > 0) {
+                throw unsupported(annotation, field, "validation groups");
+            }
+            String message = (String) annotation.annotationType().getMethod("message").invoke(annotation);
+            if (message.contains("{")) {
+                throw unsupported(annotation, field, "message template " + message);
+            }
+            return message;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot read constraint " + annotation, e);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> accessor(Class<?> type, Field field) {
+        String name = Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+        Method getter;
+        try {
+            getter = type.getMethod((field.getType() == boolean.class ? "is" : "get") + name);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("No public getter for constrained field " + type.getName() + "." + field.getName(), e);
+        }
+        try {
+            MethodHandle handle = LOOKUP.unreflect(getter);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle,
+                    handle.type().wrap());
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot build accessor for " + getter, e);
+        }
+    }
+    
+    private static IllegalStateException unsupported(Annotation annotation, Field field, String what) {
+        return new IllegalStateException("Unsupported " + what + " on " + field.getDeclaringClass().getSimpleName()
+                + "." + field.getName() + ": @" + annotation.annotationType().getSimpleName());
+    }
+    
+    /**
+     * A {@code @DecimalMin}/{@code @DecimalMax} bound. When the bound is exactly the
+     * decimal form of a double (e.g. "10.0"), double values compare as doubles,
+     * which orders the same as comparing their {@link BigDecimal#valueOf} forms.
+     */
+    private record DecimalBound(BigDecimal decimal, double asDouble, boolean exactDouble) {
+        
+        DecimalBound(BigDecimal decimal) {
+            this(decimal, decimal.doubleValue(), BigDecimal.valueOf(decimal.doubleValue()).compareTo(decimal) == 0);
+        }
+        
+        int compareValue(Number value) {
+            if (value instanceof Double || value instanceof Float) {
+                double number = value.doubleValue();
+                if (exactDouble || Double.isInfinite(number)) {
+                    return Double.compare(number, asDouble);
+                }
+                return BigDecimal.valueOf(number).compareTo(decimal);
+            }
+            if (value instanceof BigDecimal number) {
+                return number.compareTo(decimal);
+            }
+            if (value instanceof BigInteger number) {
+                return new BigDecimal(number).compareTo(decimal);
+            }
+            return BigDecimal.valueOf(value.longValue()).compareTo(decimal);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.servosys.validation;
+
+/**
+ * A failed constraint: the field it applies to, the constraint name (used as
+ * the error code, e.g. {@code NotBlank}) and the message declared on the annotation.
+ */
+public record Violation(String field, String code, String message) {
+}
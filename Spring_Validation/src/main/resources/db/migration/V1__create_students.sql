@@ -0,0 +1,30 @@
+-- Baseline schema, matching the JPA mappings as of the move from ddl-auto to Flyway
+
+CREATE SEQUENCE students_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE students (
+    id              BIGINT       NOT NULL,
+    first_name      VARCHAR(50)  NOT NULL,
+    last_name       VARCHAR(50)  NOT NULL,
+    first_name_norm VARCHAR(100),
+    last_name_norm  VARCHAR(100),
+    email           VARCHAR(255) NOT NULL,
+    phone_number    VARCHAR(255),
+    date_of_birth   DATE         NOT NULL,
+    department      VARCHAR(255) NOT NULL,
+    year_course     INTEGER CHECK (year_course >= 1 AND year_course <= 5),
+    cgpa            FLOAT(53),
+    is_active       BOOLEAN,
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6),
+    CONSTRAINT pk_students PRIMARY KEY (id),
+    CONSTRAINT uk_students_email UNIQUE (email)
+);
+
+CREATE TABLE student_name_trigrams (
+    gram       VARCHAR(3) NOT NULL,
+    student_id BIGINT     NOT NULL,
+    CONSTRAINT pk_student_name_trigrams PRIMARY KEY (gram, student_id)
+);
+
+CREATE INDEX idx_trigrams_student ON student_name_trigrams (student_id);
@@ -0,0 +1,15 @@
+-- Secondary indexes for the repository filters; each trails with id so keyset
+-- pagination (WHERE ... AND id > ? ORDER BY id) is served from the index order.
+
+-- findByYearAndCgpaGreaterThanEqual
+CREATE INDEX idx_students_year_cgpa ON students (year_course, cgpa);
+
+-- findByIsActive / findByIsActiveAndIdGreaterThanOrderByIdAsc
+CREATE INDEX idx_students_active_id ON students (is_active, id);
+
+-- findByDepartment / findByDepartmentAndIdGreaterThanOrderByIdAsc
+CREATE INDEX idx_students_department_id ON students (department, id);
+
+-- findByFirstNamePrefix / findByLastNamePrefix
+CREATE INDEX idx_students_first_name_norm ON students (first_name_norm, id);
+CREATE INDEX idx_students_last_name_norm ON students (last_name_norm, id);
@@ -0,0 +1,9 @@
+-- Ranking indexes: rows come out in leaderboard order (cgpa DESC, id) within a
+-- year or department, so a top-K query reads K index entries and never sorts.
+
+-- Supersedes idx_students_year_cgpa; the cgpa >= ? range is still served by the new one
+DROP INDEX idx_students_year_cgpa;
+CREATE INDEX idx_students_year_rank ON students (year_course, cgpa DESC, id);
+
+-- findTopByDepartment / findTopByDepartmentAndYear
+CREATE INDEX idx_students_department_rank ON students (department, cgpa DESC, id);
@@ -0,0 +1,16 @@
+-- Transactional outbox behind the change feed (GET /api/v1/students/changes).
+-- Rows are appended in the writing transaction; ids are the feed cursor.
+
+CREATE SEQUENCE student_changes_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE student_changes (
+    id          BIGINT        NOT NULL,
+    student_id  BIGINT        NOT NULL,
+    change_type VARCHAR(16)   NOT NULL,
+    payload     VARCHAR(4000),
+    occurred_at TIMESTAMP(6)  NOT NULL,
+    CONSTRAINT pk_student_changes PRIMARY KEY (id)
+);
+
+-- Retention purge
+CREATE INDEX idx_student_changes_occurred_at ON student_changes (occurred_at);
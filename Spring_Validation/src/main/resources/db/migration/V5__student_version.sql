@@ -0,0 +1,4 @@
+-- Optimistic concurrency for student writes (Student.version, If-Match on PATCH).
+-- Every UPDATE, including the bulk status changes, increments it.
+
+ALTER TABLE students ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
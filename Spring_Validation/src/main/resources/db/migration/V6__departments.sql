@@ -0,0 +1,30 @@
+-- Department dictionary: students reference a small integer key instead of
+-- repeating the name on every row and in every department index entry.
+
+CREATE TABLE departments (
+    id   INTEGER      GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_departments PRIMARY KEY (id),
+    CONSTRAINT uk_departments_name UNIQUE (name)
+);
+
+INSERT INTO departments (name)
+SELECT DISTINCT department FROM students ORDER BY department;
+
+ALTER TABLE students ADD COLUMN department_id INTEGER;
+
+UPDATE students s SET department_id = (SELECT d.id FROM departments d WHERE d.name = s.department);
+
+ALTER TABLE students ALTER COLUMN department_id SET NOT NULL;
+
+DROP INDEX idx_students_department_id;
+DROP INDEX idx_students_department_rank;
+ALTER TABLE students DROP COLUMN department;
+
+-- Same shapes as before, keyed on the integer (V2/V3)
+CREATE INDEX idx_students_department_id ON students (department_id, id);
+CREATE INDEX idx_students_department_rank ON students (department_id, cgpa DESC, id);
+
+-- Created after the indexes so H2 backs it with idx_students_department_id instead of adding one
+ALTER TABLE students ADD CONSTRAINT fk_students_department
+    FOREIGN KEY (department_id) REFERENCES departments (id);
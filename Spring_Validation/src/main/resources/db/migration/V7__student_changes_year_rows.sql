@@ -0,0 +1,3 @@
+-- A status change of a whole year is recorded as one outbox row without a student id
+
+ALTER TABLE student_changes ALTER COLUMN student_id DROP NOT NULL;
@@ -0,0 +1,3 @@
+-- Outbox ids are taken one at a time, so a gap in the feed only lasts while a commit is in flight
+
+ALTER SEQUENCE student_changes_seq INCREMENT BY 1;
@@ -0,0 +1,75 @@
+package com.servosys.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.admission.scan.rate=0.01",
+        "app.admission.scan.burst=2",
+        "app.admission.scan.max-concurrent=1",
+        "app.admission.overload-retry-after-seconds=3"
+})
+@AutoConfigureMockMvc
+class AdmissionControlTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Test
+    void emptyBucketIsAnsweredWith429AndRetryAfter() throws Exception {
+        mockMvc.perform(scan("10.0.0.1")).andExpect(status().isOk());
+        mockMvc.perform(scan("10.0.0.1")).andExpect(status().isOk());
+        
+        mockMvc.perform(scan("10.0.0.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().longValue(HttpHeaders.RETRY_AFTER, 100))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.status").value(429));
+        // Buckets are per client
+        mockMvc.perform(scan("10.0.0.2")).andExpect(status().isOk());
+    }
+    
+    // The stream's permit is held across the async dispatch and released when it completes
+    @Test
+    void streamHoldsItsPermitUntilTheBodyIsWritten() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/v1/students/active")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .with(remoteAddr("10.0.1.1")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        mockMvc.perform(scan("10.0.1.2"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"))
+                .andExpect(jsonPath("$.status").value(503));
+        
+        mockMvc.perform(asyncDispatch(stream)).andExpect(status().isOk());
+        mockMvc.perform(scan("10.0.1.3")).andExpect(status().isOk());
+    }
+    
+    private static MockHttpServletRequestBuilder scan(String client) {
+        return get("/api/v1/students?limit=1").with(remoteAddr(client));
+    }
+    
+    private static RequestPostProcessor remoteAddr(String client) {
+        return request -> {
+            request.setRemoteAddr(client);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.servosys.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs through a real Tomcat so the forwarded-header handling is the one
+ * used in production; the test client on 127.0.0.1 plays the trusted proxy.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.admission.scan.rate=0.01",
+        "app.admission.scan.burst=1",
+        "app.client-id-header=X-Client-Id"
+})
+class ClientKeyResolverTest {
+    
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    
+    @Value("${local.server.port}")
+    private int port;
+    
+    @Test
+    void clientsBehindAProxyAreLimitedByTheirForwardedAddress() throws Exception {
+        assertThat(scan("X-Forwarded-For", "203.0.113.1")).isEqualTo(200);
+        assertThat(scan("X-Forwarded-For", "203.0.113.1")).isEqualTo(429);
+        assertThat(scan("X-Forwarded-For", "203.0.113.2")).isEqualTo(200);
+    }
+    
+    @Test
+    void aClientIdHeaderTakesPrecedenceOverTheAddress() throws Exception {
+        assertThat(scan("X-Client-Id", "batch-importer")).isEqualTo(200);
+        assertThat(scan("X-Client-Id", "batch-importer")).isEqualTo(429);
+        assertThat(scan("X-Client-Id", "report-builder")).isEqualTo(200);
+    }
+    
+    private int scan(String header, String value) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/students?limit=1"))
+                .header(header, value)
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
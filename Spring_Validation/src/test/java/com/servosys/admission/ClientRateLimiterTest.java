@@ -0,0 +1,44 @@
+package com.servosys.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientRateLimiterTest {
+    
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    
+    @Test
+    void admitsBurstThenRefillsAtRate() {
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 3);
+        long now = 42 * SECOND;
+        
+        assertThat(limiter.tryAcquire("a", now)).isZero();
+        assertThat(limiter.tryAcquire("a", now)).isZero();
+        assertThat(limiter.tryAcquire("a", now)).isZero();
+        assertThat(limiter.tryAcquire("a", now)).isEqualTo(SECOND / 10);
+        
+        // A rejected attempt takes nothing: one token is back after 100ms
+        assertThat(limiter.tryAcquire("a", now + SECOND / 10)).isZero();
+        assertThat(limiter.tryAcquire("a", now + SECOND / 10)).isPositive();
+        
+        // Idle long enough, the full burst is available again but never more
+        long later = now + 10 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("a", later)).isZero();
+        }
+        assertThat(limiter.tryAcquire("a", later)).isPositive();
+    }
+    
+    @Test
+    void clientsHaveSeparateBuckets() {
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1);
+        long now = -5 * SECOND;
+        
+        assertThat(limiter.tryAcquire("a", now)).isZero();
+        assertThat(limiter.tryAcquire("a", now)).isEqualTo(SECOND);
+        assertThat(limiter.tryAcquire("b", now)).isZero();
+    }
+}
@@ -0,0 +1,55 @@
+package com.servosys.config;
+
+import com.servosys.dto.StudentDTO;
+import com.servosys.service.StudentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StudentColumnarHttpMessageConverterTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private StudentService studentService;
+    
+    @Test
+    void columnarFormIsServedOnlyWhenAskedFor() throws Exception {
+        studentService.createStudent(StudentDTO.builder()
+                .firstName("Columnar")
+                .lastName("Student")
+                .email("columnar-" + UUID.randomUUID() + "@example.com")
+                .dateOfBirth(LocalDate.of(2001, 1, 1))
+                .department("Columnar")
+                .year(3)
+                .cgpa(9.9)
+                .build());
+        
+        mockMvc.perform(get("/api/v1/students/rankings?year=3&limit=5")
+                        .accept(StudentColumnarHttpMessageConverter.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(StudentColumnarHttpMessageConverter.MEDIA_TYPE))
+                .andExpect(jsonPath("$.data.id").isArray())
+                .andExpect(jsonPath("$.data.count").isNumber());
+        
+        mockMvc.perform(get("/api/v1/students/rankings?year=3&limit=5")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data").isArray());
+    }
+}
@@ -0,0 +1,96 @@
+package com.servosys.controller;
+
+import com.servosys.dto.StudentDTO;
+import com.servosys.service.StudentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StudentConditionalGetTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private StudentService studentService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    // The ETag comes from the cached snapshot, not from a fresh read that could be newer than the body
+    @Test
+    void cachedStudentIsServedWithItsOwnValidators() throws Exception {
+        StudentDTO student = studentService.createStudent(StudentDTO.builder()
+                .firstName("Cached")
+                .lastName("Student")
+                .email("cached-" + UUID.randomUUID() + "@example.com")
+                .dateOfBirth(LocalDate.of(2001, 1, 1))
+                .department("Cached")
+                .year(1)
+                .build());
+        String uri = "/api/v1/students/" + student.getId();
+        
+        String etag = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"" + student.getId() + "-0");
+        
+        // Behind the cache's back: a cache hit must neither see it nor pair the old body with a new tag
+        jdbcTemplate.update("UPDATE students SET first_name = 'Changed', version = version + 1 WHERE id = ?", student.getId());
+        
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.firstName").value("Cached"))
+                .andExpect(result -> assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo(etag));
+    }
+    
+    // Pages and streams are answered with 304 from the table version until a write commits
+    @Test
+    void collectionsAreRevalidatedAgainstTheTableVersion() throws Exception {
+        String page = "/api/v1/students?limit=1";
+        String etag = mockMvc.perform(get(page))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"");
+        String streamEtag = mockMvc.perform(get("/api/v1/students").accept(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(streamEtag).startsWith("W/\"").isNotEqualTo(etag);
+        
+        mockMvc.perform(get(page).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(get("/api/v1/students").accept(MediaType.APPLICATION_NDJSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, streamEtag))
+                .andExpect(status().isNotModified());
+        
+        studentService.createStudent(StudentDTO.builder()
+                .firstName("Collection")
+                .lastName("Student")
+                .email("collection-" + UUID.randomUUID() + "@example.com")
+                .dateOfBirth(LocalDate.of(2001, 1, 1))
+                .department("Cached")
+                .year(1)
+                .build());
+        mockMvc.perform(get(page).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(result -> assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag));
+    }
+}
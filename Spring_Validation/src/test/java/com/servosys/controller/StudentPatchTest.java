@@ -0,0 +1,193 @@
+package com.servosys.controller;
+
+import com.servosys.dto.StudentDTO;
+import com.servosys.event.StudentChangedEvent;
+import com.servosys.model.Student;
+import com.servosys.repository.StudentRepository;
+import com.servosys.service.StudentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@RecordApplicationEvents
+class StudentPatchTest {
+    
+    private static final MediaType MERGE_PATCH = MediaType.parseMediaType("application/merge-patch+json");
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private StudentService studentService;
+    
+    @Autowired
+    private StudentRepository studentRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ApplicationEvents events;
+    
+    @Test
+    void absentFieldsAreKeptAndExplicitNullsCleared() throws Exception {
+        StudentDTO student = create();
+        
+        patchStudent(student.getId(), "{\"cgpa\": null}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.cgpa").doesNotExist())
+                .andExpect(jsonPath("$.data.phoneNumber").value(student.getPhoneNumber()))
+                .andExpect(jsonPath("$.data.year").value(student.getYear()));
+        
+        StudentDTO stored = studentService.getStudentById(student.getId()).getStudent();
+        assertThat(stored.getCgpa()).isNull();
+        assertThat(stored.getPhoneNumber()).isEqualTo(student.getPhoneNumber());
+    }
+    
+    @Test
+    void fieldsOutsideThePatchableSetAreRejected() throws Exception {
+        StudentDTO student = create();
+        
+        patchStudent(student.getId(), "{\"isActive\": false}")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Field cannot be patched: isActive"));
+        assertThat(studentService.getStudentById(student.getId()).getStudent().getIsActive()).isTrue();
+    }
+    
+    @Test
+    void patchThatChangesNothingWritesNothing() throws Exception {
+        StudentDTO student = create();
+        events.clear();
+        
+        patchStudent(student.getId(), "{\"firstName\": \"" + student.getFirstName() + "\", \"year\": " + student.getYear() + "}")
+                .andExpect(status().isOk());
+        
+        assertThat(events.stream(StudentChangedEvent.class)).isEmpty();
+        assertThat(version(student.getId())).isZero();
+    }
+    
+    @Test
+    void ifMatchIsCheckedAgainstTheCurrentVersion() throws Exception {
+        StudentDTO student = create();
+        String etag = mockMvc.perform(get("/api/v1/students/" + student.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        // A list naming the current version matches, whatever else it holds
+        patchStudent(student.getId(), "{\"year\": 4}", "\"not-ours\", W/\"" + (student.getId() + 1) + "-0\", " + etag)
+                .andExpect(status().isOk());
+        
+        // The same tag is now stale
+        patchStudent(student.getId(), "{\"year\": 5}", etag)
+                .andExpect(status().isPreconditionFailed());
+        assertThat(studentService.getStudentById(student.getId()).getStudent().getYear()).isEqualTo(4);
+        
+        patchStudent(student.getId(), "{\"year\": 5}", "*").andExpect(status().isOk());
+    }
+    
+    // The row changes between the patch's read and its flush: the version check in the UPDATE catches it
+    @Test
+    void concurrentUpdateIsAConflict() throws Exception {
+        StudentDTO student = create();
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            Student loaded = studentRepository.findById(student.getId()).orElseThrow();
+            assertThat(loaded.getVersion()).isZero();
+            CompletableFuture.runAsync(() -> jdbcTemplate.update(
+                    "UPDATE students SET cgpa = 1.0, version = version + 1 WHERE id = ?", student.getId()))
+                    .orTimeout(5, TimeUnit.SECONDS).join();
+            try {
+                patchStudent(student.getId(), "{\"cgpa\": 9.0}")
+                        .andExpect(status().isConflict())
+                        .andExpect(jsonPath("$.status").value(409));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            status.setRollbackOnly();
+        });
+        
+        assertThat(version(student.getId())).isEqualTo(1);
+    }
+    
+    @Test
+    void emailAndNamePatchKeepLookupsInSync() throws Exception {
+        StudentDTO student = create();
+        String oldEmail = student.getEmail();
+        String newEmail = email();
+        String newLastName = uniqueName();
+        assertThat(studentRepository.findIdByEmail(oldEmail)).isEqualTo(student.getId());
+        
+        patchStudent(student.getId(), "{\"email\": \"" + newEmail + "\", \"lastName\": \"" + newLastName + "\"}")
+                .andExpect(status().isOk());
+        
+        assertThat(studentRepository.findIdByEmail(oldEmail)).isNull();
+        assertThat(studentRepository.findIdByEmail(newEmail)).isEqualTo(student.getId());
+        assertThat(studentService.searchStudentsByName(newLastName, 10))
+                .extracting(StudentDTO::getId).containsExactly(student.getId());
+        assertThat(studentService.searchStudentsByName(student.getLastName(), 10))
+                .extracting(StudentDTO::getId).doesNotContain(student.getId());
+    }
+    
+    private ResultActions patchStudent(Long id, String body) throws Exception {
+        return mockMvc.perform(patch("/api/v1/students/" + id).contentType(MERGE_PATCH).content(body));
+    }
+    
+    private ResultActions patchStudent(Long id, String body, String ifMatch) throws Exception {
+        return mockMvc.perform(patch("/api/v1/students/" + id).contentType(MERGE_PATCH).content(body)
+                .header(HttpHeaders.IF_MATCH, ifMatch));
+    }
+    
+    private long version(Long id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM students WHERE id = ?", Long.class, id);
+    }
+    
+    private StudentDTO create() {
+        return studentService.createStudent(StudentDTO.builder()
+                .firstName("Patch")
+                .lastName(uniqueName())
+                .email(email())
+                .phoneNumber("+14155550123")
+                .dateOfBirth(LocalDate.of(2001, 1, 1))
+                .department("Patch")
+                .year(2)
+                .cgpa(7.5)
+                .build());
+    }
+    
+    private static String email() {
+        return "patch-" + UUID.randomUUID() + "@example.com";
+    }
+    
+    // Letters only, and unlikely to share a trigram run with any other name
+    private static String uniqueName() {
+        StringBuilder name = new StringBuilder("Pz");
+        for (char c : UUID.randomUUID().toString().replace("-", "").substring(0, 12).toCharArray()) {
+            name.append((char) ('a' + Character.digit(c, 16)));
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package com.servosys.exception;
+
+import com.servosys.dto.ErrorResponse;
+import com.servosys.dto.StudentDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.ObjectError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTest {
+    
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(new SimpleMeterRegistry(), 20);
+    
+    // A class-level constraint's error is an ObjectError, not a FieldError; it used to end in a 500
+    @Test
+    void classLevelConstraintIsReportedUnderTheObjectName() throws Exception {
+        BeanPropertyBindingResult result = new BeanPropertyBindingResult(new StudentDTO(), "studentDTO");
+        result.rejectValue("email", "Email", "Email should be valid");
+        result.addError(new ObjectError("studentDTO", "Graduation must follow enrolment"));
+        MethodArgumentNotValidException ex = new MethodArgumentNotValidException(
+                new MethodParameter(getClass().getDeclaredMethod("create", StudentDTO.class), 0), result);
+        
+        ResponseEntity<ErrorResponse> response = handler.handleValidationExceptions(
+                ex, new MockHttpServletRequest("POST", "/api/v1/students"));
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().getValidationErrors())
+                .containsEntry("email", "Email should be valid")
+                .containsEntry("studentDTO", "Graduation must follow enrolment");
+    }
+    
+    @SuppressWarnings("unused")
+    private void create(StudentDTO student) {
+    }
+}
@@ -0,0 +1,142 @@
+package com.servosys.export;
+
+import com.servosys.dto.ExportJobDTO;
+import com.servosys.dto.ExportRequest;
+import com.servosys.dto.StudentDTO;
+import com.servosys.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs export jobs end to end on the worker thread. A chunk size of two makes
+ * every export span several keyset chunks.
+ */
+@SpringBootTest(properties = {
+        "app.exports.dir=target/test-exports",
+        "app.exports.chunk-size=2"
+})
+class StudentExportServiceTest {
+    
+    @Autowired
+    private StudentExportService exportService;
+    
+    @Autowired
+    private StudentService studentService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Fresh per test: the in-memory database is shared with the other test classes
+    private String department;
+    
+    @BeforeEach
+    void createStudents() {
+        department = "Export-" + UUID.randomUUID();
+        createStudent("Ada", "Lovelace", 3, 9.5, true);
+        createStudent("Grace", "Hopper, \"Amazing\"", 2, 9.1, true);
+        createStudent("Alan", "Turing", 3, 8.7, false);
+        createStudent("Edsger", "Dijkstra", 3, 7.9, true);
+        createStudent("Barbara", "Liskov", 1, 9.8, true);
+    }
+    
+    @Test
+    void writesFilteredCsvAcrossChunks() throws Exception {
+        ExportRequest request = new ExportRequest("csv", department, true, 3, 7.0, null);
+        ExportJobDTO job = awaitCompletion(exportService.submit(request).getId());
+        
+        List<String> lines = lines(job);
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).isEqualTo(
+                "id,firstName,lastName,email,phoneNumber,dateOfBirth,department,year,cgpa,isActive");
+        assertThat(lines.get(1)).contains(",Ada,Lovelace,").endsWith("," + department + ",3,9.5,true");
+        assertThat(lines.get(2)).contains(",Edsger,Dijkstra,");
+        assertThat(job.getTotalRows()).isEqualTo(2);
+        assertThat(job.getRowsWritten()).isEqualTo(2);
+        assertThat(job.getProgress()).isEqualTo(100);
+        assertThat(job.getBytesWritten()).isEqualTo(Files.size(file(job)));
+    }
+    
+    @Test
+    void quotesCsvFieldsWithSeparatorsAndQuotes() throws Exception {
+        ExportRequest request = new ExportRequest("csv", department, null, 2, null, null);
+        ExportJobDTO job = awaitCompletion(exportService.submit(request).getId());
+        
+        assertThat(lines(job).get(1)).contains(",Grace,\"Hopper, \"\"Amazing\"\"\",");
+    }
+    
+    @Test
+    void writesNdjson() throws Exception {
+        ExportRequest request = new ExportRequest("ndjson", department, null, null, 9.0, 10.0);
+        ExportJobDTO job = awaitCompletion(exportService.submit(request).getId());
+        
+        List<String> lines = lines(job);
+        assertThat(lines).hasSize(3);
+        assertThat(lines).map(line -> objectMapper.readValue(line, JsonNode.class).get("firstName").asString())
+                .containsExactly("Ada", "Grace", "Barbara");
+    }
+    
+    @Test
+    void unknownDepartmentExportsOnlyTheHeader() throws Exception {
+        ExportRequest request = new ExportRequest("csv", "No-such-department", null, null, null, null);
+        ExportJobDTO job = awaitCompletion(exportService.submit(request).getId());
+        
+        assertThat(lines(job)).hasSize(1);
+        assertThat(job.getRowsWritten()).isZero();
+    }
+    
+    @Test
+    void deletingAJobRemovesItsFile() throws Exception {
+        ExportJobDTO job = awaitCompletion(exportService.submit(new ExportRequest("csv", department, null, null, null, null)).getId());
+        Path file = file(job);
+        assertThat(file).exists();
+        
+        exportService.delete(job.getId());
+        assertThat(file).doesNotExist();
+    }
+    
+    private ExportJobDTO awaitCompletion(String id) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            ExportJobDTO job = exportService.getJob(id);
+            if (!job.getStatus().equals("queued") && !job.getStatus().equals("running")) {
+                assertThat(job.getStatus()).as(job.getError()).isEqualTo("completed");
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Export " + id + " did not finish");
+    }
+    
+    private Path file(ExportJobDTO job) {
+        return exportService.getFile(job.getId()).path();
+    }
+    
+    private List<String> lines(ExportJobDTO job) throws IOException {
+        return Files.readAllLines(file(job));
+    }
+    
+    private void createStudent(String firstName, String lastName, int year, double cgpa, boolean active) {
+        studentService.createStudent(StudentDTO.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(firstName.toLowerCase() + "." + UUID.randomUUID() + "@example.com")
+                .dateOfBirth(LocalDate.of(2000, 1, 1))
+                .department(department)
+                .year(year)
+                .cgpa(cgpa)
+                .isActive(active)
+                .build());
+    }
+}
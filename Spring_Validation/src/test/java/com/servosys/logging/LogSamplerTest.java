@@ -0,0 +1,29 @@
+package com.servosys.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSamplerTest {
+    
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    
+    @Test
+    void capsLinesPerSecondAndReportsWhatWasDropped() {
+        LogSampler sampler = new LogSampler(2);
+        long now = System.nanoTime();
+        
+        assertThat(sampler.tryAcquire(now)).isZero();
+        assertThat(sampler.tryAcquire(now)).isZero();
+        for (int i = 0; i < 5; i++) {
+            assertThat(sampler.tryAcquire(now + SECOND / 2)).isEqualTo(-1);
+        }
+        
+        // The first line of the next window carries the count, the second starts again from zero
+        assertThat(sampler.tryAcquire(now + SECOND)).isEqualTo(5);
+        assertThat(sampler.tryAcquire(now + SECOND)).isZero();
+        assertThat(sampler.tryAcquire(now + SECOND)).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,232 @@
+package com.servosys.replica;
+
+import com.servosys.dto.StudentDTO;
+import com.servosys.repository.StudentChangeRepository;
+import com.servosys.service.StudentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Runs against two H2 databases: the usual in-memory primary and a second
+ * in-memory database as the replica. Nothing replicates between them, so
+ * the tests stage the replica's outbox by hand and count outbox rows to see
+ * which database served a read.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "app.datasource.replica.migrate=true",
+        "app.datasource.replica.max-lag=PT0.5S",
+        // Checks are driven by the tests
+        "app.datasource.replica.lag-check-interval=PT1H"
+})
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadReplicaRoutingTest {
+    
+    static final String REPLICA_URL = "jdbc:h2:mem:replicatest;DB_CLOSE_DELAY=-1";
+    
+    private static final String WRITER = "10.0.0.1";
+    private static final String READER = "10.0.0.2";
+    
+    @Autowired
+    private ReadReplica readReplica;
+    
+    @Autowired
+    private ReadYourWritesInterceptor readYourWritesInterceptor;
+    
+    @Autowired
+    private StudentChangeRepository changeRepository;
+    
+    @Autowired
+    private StudentService studentService;
+    
+    @Autowired
+    private JdbcTemplate primary;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    private final JdbcTemplate replica = new JdbcTemplate(
+            new SimpleDriverDataSource(new org.h2.Driver(), REPLICA_URL, "sa", ""));
+    
+    private long replicaRows;
+    
+    // Brings the replica level with the primary's outbox position, with a different row count
+    @BeforeEach
+    void syncReplica() {
+        replica.update("DELETE FROM student_changes");
+        long position = outboxPosition(primary);
+        replicaRows = count(primary) + 1;
+        for (long i = 0; i < replicaRows; i++) {
+            stageChange(position - i);
+        }
+        readReplica.checkLag();
+    }
+    
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+    
+    @Test
+    @Order(1)
+    void readsGoToReplicaWhenInSync() {
+        assertThat(readReplica.isUsable()).isTrue();
+        assertThat(countAs(READER)).isEqualTo(replicaRows);
+    }
+    
+    @Test
+    @Order(2)
+    void writesAndBackgroundReadsStayOnPrimary() {
+        handle("POST", WRITER);
+        assertThat(changeRepository.count()).isEqualTo(count(primary));
+        
+        RequestContextHolder.resetRequestAttributes();
+        assertThat(changeRepository.count()).isEqualTo(count(primary));
+    }
+    
+    @Test
+    @Order(3)
+    void clientReadsItsOwnWritesFromPrimary() {
+        handle("PATCH", WRITER);
+        
+        assertThat(countAs(WRITER)).isEqualTo(count(primary));
+        assertThat(countAs(READER)).isEqualTo(replicaRows);
+    }
+    
+    @Test
+    @Order(4)
+    void lagBeyondToleranceFallsBackToPrimary() throws InterruptedException {
+        createStudent();
+        Thread.sleep(600);
+        readReplica.checkLag();
+        
+        assertThat(readReplica.isUsable()).isFalse();
+        assertThat(countAs(READER)).isEqualTo(count(primary));
+        
+        // Replica catches up
+        stageChange(outboxPosition(primary));
+        replicaRows++;
+        readReplica.checkLag();
+        assertThat(readReplica.isUsable()).isTrue();
+        assertThat(countAs(READER)).isEqualTo(replicaRows);
+    }
+    
+    // A board outlives the request that loads it and is only kept current by later events
+    @Test
+    @Order(5)
+    void leaderboardLoadsFromPrimary() {
+        StudentDTO top = createStudent(4, 10.0);
+        stageChange(outboxPosition(primary));
+        replicaRows++;
+        readReplica.checkLag();
+        
+        handle("GET", READER);
+        assertThat(readReplica.isUsable()).isTrue();
+        assertThat(studentService.getTopStudents(4, null, null, 100))
+                .extracting(StudentDTO::getId)
+                .contains(top.getId());
+        assertThat(ReadYourWritesInterceptor.servedFromReplica(RequestContextHolder.currentRequestAttributes())).isFalse();
+        // Whereas the request's own reads do go to the replica
+        assertThat(changeRepository.count()).isEqualTo(replicaRows);
+        assertThat(ReadYourWritesInterceptor.servedFromReplica(RequestContextHolder.currentRequestAttributes())).isTrue();
+    }
+    
+    // A replica body may be older than the table version, so it must not be tagged with it
+    @Test
+    @Order(6)
+    void collectionsFromReplicaCarryNoValidators() throws Exception {
+        handle("PATCH", WRITER);
+        
+        assertThat(etag(get("/api/v1/students?limit=1"), READER)).isNull();
+        assertThat(etag(get("/api/v1/students").accept(MediaType.APPLICATION_NDJSON), READER)).isNull();
+        assertThat(etag(get("/api/v1/students?limit=1"), WRITER)).isNotNull();
+        assertThat(etag(get("/api/v1/students").accept(MediaType.APPLICATION_NDJSON), WRITER)).isNotNull();
+    }
+    
+    @Test
+    @Order(7)
+    void unavailableReplicaFallsBackToPrimary() {
+        replica.execute("SHUTDOWN");
+        readReplica.checkLag();
+        
+        assertThat(readReplica.isUsable()).isFalse();
+        assertThat(countAs(READER)).isEqualTo(count(primary));
+    }
+    
+    private long countAs(String client) {
+        handle("GET", client);
+        return changeRepository.count();
+    }
+    
+    private void handle(String method, String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/v1/students");
+        request.setRemoteAddr(client);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        readYourWritesInterceptor.preHandle(request, response, null);
+        if (!"GET".equals(method)) {
+            readYourWritesInterceptor.afterCompletion(request, response, null, null);
+        }
+    }
+    
+    private String etag(MockHttpServletRequestBuilder request, String client) throws Exception {
+        return mockMvc.perform(request.with(servletRequest -> {
+                    servletRequest.setRemoteAddr(client);
+                    return servletRequest;
+                }))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+    
+    private void stageChange(long id) {
+        replica.update("INSERT INTO student_changes (id, student_id, change_type, occurred_at) "
+                + "VALUES (?, 0, 'CREATED', CURRENT_TIMESTAMP)", id);
+    }
+    
+    private void createStudent() {
+        createStudent(2, 8.0);
+    }
+    
+    private StudentDTO createStudent(int year, double cgpa) {
+        return studentService.createStudent(StudentDTO.builder()
+                .firstName("Replica")
+                .lastName("Lag")
+                .email("replica.lag." + System.nanoTime() + "@example.com")
+                .dateOfBirth(LocalDate.of(2000, 1, 1))
+                .department("CS")
+                .year(year)
+                .cgpa(cgpa)
+                .build());
+    }
+    
+    private static long outboxPosition(JdbcTemplate database) {
+        return database.queryForObject("SELECT COALESCE(MAX(id), 0) FROM student_changes", Long.class);
+    }
+    
+    private static long count(JdbcTemplate database) {
+        return database.queryForObject("SELECT COUNT(*) FROM student_changes", Long.class);
+    }
+}
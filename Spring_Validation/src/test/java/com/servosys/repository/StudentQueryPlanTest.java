@@ -0,0 +1,158 @@
+package com.servosys.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Captures the SQL Hibernate generates for each repository query and runs
+ * EXPLAIN on it against H2, failing if any statement falls back to a table scan.
+ * Every query declared on StudentRepository is covered; the stats rebuild
+ * is the one documented exemption (see statsRebuildIsOneScan).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.servosys.repository.StudentQueryPlanTest$CapturingInspector")
+@Transactional
+class StudentQueryPlanTest {
+    
+    @Autowired
+    private StudentRepository studentRepository;
+    
+    @Autowired
+    private StudentNameTrigramRepository trigramRepository;
+    
+    @Autowired
+    private StudentChangeRepository changeRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void pointLookupsUseIndexes() {
+        assertIndexed(() -> studentRepository.findById(1L));
+        assertIndexed(() -> studentRepository.findAllById(List.of(1L, 2L)));
+        assertIndexed(() -> studentRepository.findDtoById(1L));
+        assertIndexed(() -> studentRepository.findVersionedById(1L));
+        assertIndexed(() -> studentRepository.findDtosByIdIn(List.of(1L, 2L)));
+        assertIndexed(() -> studentRepository.findByEmail("a@example.com"));
+        assertIndexed(() -> studentRepository.findIdByEmail("a@example.com"));
+        assertIndexed(() -> studentRepository.existsByEmail("a@example.com"));
+        assertIndexed(() -> studentRepository.existsByEmailAndIdNot("a@example.com", 1L));
+        assertIndexed(() -> studentRepository.findEmailOwners(List.of("a@example.com", "b@example.com")));
+    }
+    
+    @Test
+    void filterQueriesUseIndexes() {
+        assertIndexed(() -> studentRepository.findByDepartment("CS"));
+        assertIndexed(() -> studentRepository.findByIsActive(true));
+    }
+    
+    @Test
+    void rankingsReadInIndexOrder() {
+        assertIndexSorted(() -> studentRepository.findTopByYear(3, 8.0, Limit.of(10)));
+        assertIndexSorted(() -> studentRepository.findTopByDepartment("CS", 0.0, Limit.of(10)));
+        assertIndexSorted(() -> studentRepository.findTopByDepartmentAndYear("CS", 3, 0.0, Limit.of(10)));
+    }
+    
+    @Test
+    void statusWritesUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        assertIndexed(() -> studentRepository.updateActiveById(1L, false, now));
+        assertIndexed(() -> studentRepository.updateActiveByIdIn(List.of(1L, 2L), false, now));
+        assertIndexed(() -> studentRepository.updateActiveByYear(4, false, now));
+        assertIndexed(() -> studentRepository.lockDtosToChangeActive(List.of(1L, 2L), false));
+        assertIndexed(() -> studentRepository.parkEmails(List.of(1L, 2L)));
+        assertIndexed(() -> studentRepository.deleteDirectlyById(1L));
+    }
+    
+    @Test
+    void keysetPagesUseIndexes() {
+        assertIndexed(() -> studentRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51)));
+        assertIndexed(() -> studentRepository.findDtosAfter(0L, Limit.of(51)));
+        assertIndexed(() -> studentRepository.findDtosByIsActiveAfter(true, 0L, Limit.of(51)));
+        assertIndexed(() -> studentRepository.findDtosByDepartmentAfter("CS", 0L, Limit.of(51)));
+        assertIndexed(() -> studentRepository.streamDtosByIsActive(true).close());
+        assertIndexed(() -> studentRepository.streamDtosByDepartment("CS").close());
+    }
+    
+    // Reads of every row on purpose, asserted to do it in one pass with no sort:
+    // streamDtos (the full NDJSON export) and findByFullNameContaining (search terms
+    // too short for trigrams) walk the primary key, the latter stopping at its limit
+    @Test
+    void fullReadsWalkThePrimaryKey() {
+        assertIndexSorted(() -> studentRepository.streamDtos().close());
+        assertIndexSorted(() -> studentRepository.findByFullNameContaining("%an%", Limit.of(20)));
+    }
+    
+    // The one exemption from the no-scan rule: findStatsRows aggregates the whole table
+    // once, at startup (StudentStatsService), so a scan is the cheapest plan it has
+    @Test
+    void statsRebuildIsOneScan() {
+        List<String> plans = explain(() -> studentRepository.findStatsRows());
+        assertThat(plans).singleElement().asString()
+                .contains("tableScan", "GROUP BY")
+                .doesNotContain("ORDER BY", "JOIN");
+    }
+    
+    @Test
+    void nameSearchUsesIndexes() {
+        assertIndexed(() -> studentRepository.findByFirstNamePrefix("ann", "ano", Limit.of(20)));
+        assertIndexed(() -> studentRepository.findByLastNamePrefix("ann", "ano", Limit.of(20)));
+        assertIndexed(() -> trigramRepository.findStudentIdsContainingAll(Set.of("ann", "nna"), 2, 0L, Limit.of(80)));
+        assertIndexed(() -> trigramRepository.deleteGrams(1L, Set.of("ann")));
+        assertIndexed(() -> trigramRepository.deleteByStudentId(1L));
+    }
+    
+    @Test
+    void changeFeedUsesIndexes() {
+        assertIndexed(() -> changeRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(501)));
+        assertIndexed(() -> changeRepository.deleteOlderThan(LocalDateTime.now()));
+    }
+    
+    private void assertIndexed(Runnable query) {
+        for (String plan : explain(query)) {
+            assertThat(plan).doesNotContain("tableScan");
+        }
+    }
+    
+    // H2 marks plans whose ORDER BY is satisfied by the index with "index sorted"
+    private void assertIndexSorted(Runnable query) {
+        for (String plan : explain(query)) {
+            assertThat(plan).doesNotContain("tableScan").contains("index sorted");
+        }
+    }
+    
+    private List<String> explain(Runnable query) {
+        CapturingInspector.STATEMENTS.clear();
+        query.run();
+        List<String> statements = new ArrayList<>(CapturingInspector.STATEMENTS);
+        assertThat(statements).as("captured SQL").isNotEmpty();
+        List<String> plans = new ArrayList<>();
+        for (String sql : statements) {
+            plans.add(jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class));
+        }
+        return plans;
+    }
+    
+    public static class CapturingInspector implements StatementInspector {
+        
+        static final List<String> STATEMENTS = new ArrayList<>();
+        
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.servosys.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class DepartmentDictionaryTest {
+    
+    @Autowired
+    private DepartmentDictionary departmentDictionary;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Test
+    void departmentsAddedElsewhereAreLoadedThrough() {
+        String name = "Dept " + UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO departments (name) VALUES (?)", name);
+        Integer id = jdbcTemplate.queryForObject("SELECT id FROM departments WHERE name = ?", Integer.class, name);
+        
+        assertThat(departmentDictionary.nameOf(id)).isEqualTo(name);
+        assertThat(departmentDictionary.find(name)).isEqualTo(id);
+        assertThat(departmentDictionary.find("Dept " + UUID.randomUUID())).isNull();
+        assertThat(departmentDictionary.nameOf(Integer.MAX_VALUE)).isNull();
+    }
+    
+    @Test
+    void departmentsCreatedByARolledBackTransactionAreForgotten() {
+        String name = "Dept " + UUID.randomUUID();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            int id = departmentDictionary.resolve(name);
+            assertThat(departmentDictionary.find(name)).isEqualTo(id);
+            assertThat(departmentDictionary.nameOf(id)).isEqualTo(name);
+            status.setRollbackOnly();
+        });
+        
+        assertThat(departmentDictionary.find(name)).isNull();
+    }
+    
+    @Test
+    void concurrentCreationsOfOneNameShareTheWinnersRow() throws Exception {
+        String name = "Dept " + UUID.randomUUID();
+        TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+        CountDownLatch firstInserted = new CountDownLatch(1);
+        
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> transactions.execute(status -> {
+            int id = departmentDictionary.resolve(name);
+            firstInserted.countDown();
+            sleep(300);
+            return id;
+        }));
+        assertThat(firstInserted.await(5, TimeUnit.SECONDS)).isTrue();
+        // Misses the uncommitted row, inserts, and waits on the unique key until the first commits
+        Integer second = transactions.execute(status -> departmentDictionary.resolve(name));
+        
+        assertThat(second).isEqualTo(first.get(5, TimeUnit.SECONDS));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM departments WHERE name = ?", Integer.class, name))
+                .isEqualTo(1);
+        assertThat(departmentDictionary.find(name)).isEqualTo(second);
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.servosys.service;
+
+import com.servosys.dto.BatchItemResult;
+import com.servosys.dto.StudentDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class StudentBatchSaveTest {
+    
+    @Autowired
+    private StudentService studentService;
+    
+    @Test
+    void rowsCanSwapEmailsWithinOneBatch() {
+        StudentDTO first = studentService.createStudent(student(email("first")));
+        StudentDTO second = studentService.createStudent(student(email("second")));
+        
+        List<BatchItemResult> results = studentService.saveStudentsInBatch(List.of(
+                withEmail(first, second.getEmail()),
+                withEmail(second, first.getEmail())));
+        
+        assertThat(results).allMatch(BatchItemResult::isSuccess);
+        assertThat(studentService.getStudentById(first.getId()).getStudent().getEmail()).isEqualTo(second.getEmail());
+        assertThat(studentService.getStudentById(second.getId()).getStudent().getEmail()).isEqualTo(first.getEmail());
+    }
+    
+    @Test
+    void emailFreedByAMoveCanBeTakenByACreate() {
+        StudentDTO existing = studentService.createStudent(student(email("moving")));
+        String freed = existing.getEmail();
+        
+        List<BatchItemResult> results = studentService.saveStudentsInBatch(List.of(
+                student(freed),
+                withEmail(existing, email("moved"))));
+        
+        assertThat(results).allMatch(BatchItemResult::isSuccess);
+        assertThat(studentService.getStudentById(results.get(0).getId()).getStudent().getEmail()).isEqualTo(freed);
+    }
+    
+    @Test
+    void emailStaysTakenWhenItsOwnersMoveIsRejected() {
+        StudentDTO owner = studentService.createStudent(student(email("owner")));
+        StudentDTO blocker = studentService.createStudent(student(email("blocker")));
+        
+        // The owner's move collides with a row outside the batch, so its email is not freed
+        List<BatchItemResult> results = studentService.saveStudentsInBatch(List.of(
+                withEmail(owner, blocker.getEmail()),
+                student(owner.getEmail())));
+        
+        assertThat(results).noneMatch(BatchItemResult::isSuccess);
+        assertThat(results).extracting(BatchItemResult::getMessage).allMatch(message -> message.startsWith("Email already exists"));
+        assertThat(studentService.getStudentById(owner.getId()).getStudent().getEmail()).isEqualTo(owner.getEmail());
+    }
+    
+    private static String email(String name) {
+        return name + "-" + UUID.randomUUID() + "@example.com";
+    }
+    
+    private static StudentDTO withEmail(StudentDTO student, String email) {
+        StudentDTO update = student(email);
+        update.setId(student.getId());
+        return update;
+    }
+    
+    private static StudentDTO student(String email) {
+        return StudentDTO.builder()
+                .firstName("Batch")
+                .lastName("Student")
+                .email(email)
+                .dateOfBirth(LocalDate.of(2001, 1, 1))
+                .department("Batch")
+                .year(2)
+                .cgpa(7.5)
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.servosys.service;
+
+import com.servosys.config.CacheConfig;
+import com.servosys.dto.StudentDTO;
+import com.servosys.event.StudentChangedEvent;
+import com.servosys.exception.ValidationException;
+import com.servosys.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class StudentCacheEvictorTest {
+    
+    private static final long ID = 987_654L;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private StudentCacheEvictor evictor;
+    
+    @Autowired
+    private StudentRepository studentRepository;
+    
+    @Autowired
+    private StudentService studentService;
+    
+    // A reader that loaded the row before the write committed must not leave it cached
+    @Test
+    void evictionWaitsForAnInFlightLoadAndRemovesItsResult() throws Exception {
+        Cache students = cacheManager.getCache(CacheConfig.STUDENTS);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StudentDTO stale = StudentDTO.builder().id(ID).firstName("Stale").build();
+        
+        CompletableFuture<StudentDTO> reader = CompletableFuture.supplyAsync(() -> students.get(ID, () -> {
+            loading.countDown();
+            release.await();
+            return stale;
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        CompletableFuture<Void> eviction = CompletableFuture.runAsync(() -> evictor.onStudentChanged(
+                new StudentChangedEvent(StudentChangedEvent.Type.UPDATED, ID, stale, stale)));
+        Thread.sleep(200);
+        assertThat(eviction).isNotDone();
+        
+        release.countDown();
+        assertThat(reader.get(5, TimeUnit.SECONDS)).isSameAs(stale);
+        eviction.get(5, TimeUnit.SECONDS);
+        assertThat(students.get(ID)).isNull();
+    }
+    
+    // Same for an email lookup racing a change of that email
+    @Test
+    void emailEvictionWaitsForAnInFlightLookup() throws Exception {
+        Cache emails = cacheManager.getCache(CacheConfig.STUDENT_IDS_BY_EMAIL);
+        String oldEmail = "evict-" + UUID.randomUUID() + "@example.com";
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        
+        CompletableFuture<Long> reader = CompletableFuture.supplyAsync(() -> emails.get(oldEmail, () -> {
+            loading.countDown();
+            release.await();
+            return ID;
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        StudentDTO before = StudentDTO.builder().id(ID).email(oldEmail).build();
+        StudentDTO after = StudentDTO.builder().id(ID).email("evict-" + UUID.randomUUID() + "@example.com").build();
+        CompletableFuture<Void> eviction = CompletableFuture.runAsync(() -> evictor.onStudentChanged(
+                new StudentChangedEvent(StudentChangedEvent.Type.UPDATED, ID, before, after)));
+        Thread.sleep(200);
+        assertThat(eviction).isNotDone();
+        
+        release.countDown();
+        assertThat(reader.get(5, TimeUnit.SECONDS)).isEqualTo(ID);
+        eviction.get(5, TimeUnit.SECONDS);
+        assertThat(emails.get(oldEmail)).isNull();
+    }
+    
+    // A lookup of a free email is cached too, and must not outlive the student who takes it
+    @Test
+    void freeEmailIsEvictedOnceTaken() {
+        String email = "taken-" + UUID.randomUUID() + "@example.com";
+        assertThat(studentRepository.findIdByEmail(email)).isNull();
+        
+        StudentDTO created = studentService.createStudent(student(email));
+        
+        assertThat(studentRepository.findIdByEmail(email)).isEqualTo(created.getId());
+        assertThatThrownBy(() -> studentService.createStudent(student(email)))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("Email already exists");
+    }
+    
+    private static StudentDTO student(String email) {
+        return StudentDTO.builder()
+                .firstName("Cache")
+                .lastName("Student")
+                .email(email)
+                .dateOfBirth(LocalDate.of(2001, 1, 1))
+                .department("CS")
+                .year(2)
+                .build();
+    }
+}
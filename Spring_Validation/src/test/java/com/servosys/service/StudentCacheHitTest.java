@@ -0,0 +1,101 @@
+package com.servosys.service;
+
+import com.servosys.config.CacheConfig;
+import com.servosys.dto.StudentDTO;
+import com.servosys.dto.VersionedStudent;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * The cache advisor must run outside the transaction advisor on methods that
+ * are both @Cacheable and @Transactional: a hit is answered without a
+ * transaction (so without a connection) and without SQL.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.servosys.service.StudentCacheHitTest$CountingInspector")
+class StudentCacheHitTest {
+    
+    @Autowired
+    private StudentService studentService;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @MockitoSpyBean
+    private PlatformTransactionManager transactionManager;
+    
+    @BeforeEach
+    void countThisThread() {
+        CountingInspector.thread = Thread.currentThread();
+    }
+    
+    @AfterEach
+    void stopCounting() {
+        CountingInspector.thread = null;
+    }
+    
+    @Test
+    void cacheHitRunsNoTransactionAndNoStatement() {
+        StudentDTO created = studentService.createStudent(student());
+        cacheManager.getCache(CacheConfig.STUDENTS).evict(created.getId());
+        clearInvocations(transactionManager);
+        CountingInspector.STATEMENTS.set(0);
+        
+        studentService.getStudentById(created.getId());
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        assertThat(CountingInspector.STATEMENTS.get()).isPositive();
+        
+        clearInvocations(transactionManager);
+        CountingInspector.STATEMENTS.set(0);
+        VersionedStudent hit = studentService.getStudentById(created.getId());
+        
+        assertThat(hit.getStudent().getEmail()).isEqualTo(created.getEmail());
+        verify(transactionManager, never()).getTransaction(any());
+        assertThat(CountingInspector.STATEMENTS.get()).isZero();
+    }
+    
+    private static StudentDTO student() {
+        return StudentDTO.builder()
+                .firstName("Cached")
+                .lastName("Student")
+                .email("cached-" + UUID.randomUUID() + "@example.com")
+                .dateOfBirth(LocalDate.of(2001, 1, 1))
+                .department("Computer Science")
+                .year(2)
+                .build();
+    }
+    
+    // Counts statements prepared on the test thread only, not by background work
+    public static class CountingInspector implements StatementInspector {
+        
+        static final AtomicInteger STATEMENTS = new AtomicInteger();
+        static volatile Thread thread;
+        
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == thread) {
+                STATEMENTS.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.servosys.service;
+
+import com.servosys.dto.StudentChangeBatch;
+import com.servosys.dto.StudentChangeDTO;
+import com.servosys.model.StudentChange;
+import com.servosys.repository.StudentChangeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class StudentChangeFeedTest {
+    
+    private static final Duration GAP_GRACE = Duration.ofMillis(500);
+    private static final Duration SEND_TIMEOUT = Duration.ofMillis(300);
+    
+    @Autowired
+    private StudentChangeRepository changeRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private StudentChangeFeed feed;
+    
+    @BeforeEach
+    void setUp() {
+        feed = new StudentChangeFeed(changeRepository, objectMapper, Duration.ofDays(7), Duration.ofMinutes(30), GAP_GRACE,
+                SEND_TIMEOUT);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+    
+    // A consumer that moved past a lower id still committing elsewhere would never see it
+    @Test
+    void readStopsBeforeAnIdThatIsStillCommitting() throws Exception {
+        long since = changeRepository.findLatestId();
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Long> slow = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            long id = changeRepository.saveAndFlush(change(1L)).getId();
+            inserted.countDown();
+            await(commit);
+            return id;
+        }));
+        assertThat(inserted.await(5, TimeUnit.SECONDS)).isTrue();
+        long fast = changeRepository.save(change(2L)).getId();
+        
+        StudentChangeBatch waiting = feed.read(since, 10);
+        assertThat(waiting.getChanges()).isEmpty();
+        assertThat(waiting.getCursor()).isEqualTo(since);
+        
+        commit.countDown();
+        long slowId = slow.get(5, TimeUnit.SECONDS);
+        assertThat(feed.read(since, 10).getChanges())
+                .extracting(StudentChangeDTO::getSequence).containsExactly(slowId, fast);
+    }
+    
+    @Test
+    void gapOfARolledBackInsertIsSkippedAfterTheGrace() throws Exception {
+        long since = changeRepository.findLatestId();
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch rollback = new CountDownLatch(1);
+        CompletableFuture<Void> aborted = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            changeRepository.saveAndFlush(change(3L));
+            inserted.countDown();
+            await(rollback);
+            status.setRollbackOnly();
+        }));
+        assertThat(inserted.await(5, TimeUnit.SECONDS)).isTrue();
+        long committed = changeRepository.save(change(4L)).getId();
+        rollback.countDown();
+        aborted.get(5, TimeUnit.SECONDS);
+        
+        assertThat(feed.read(since, 10).getChanges()).isEmpty();
+        Thread.sleep(GAP_GRACE.toMillis() + 100);
+        assertThat(feed.read(since, 10).getChanges())
+                .extracting(StudentChangeDTO::getSequence).containsExactly(committed);
+    }
+    
+    // A client that stops reading holds up only its own sender, and is dropped once a send outlasts the timeout
+    @Test
+    void stalledSubscriberIsDroppedWithoutHoldingUpOthers() throws Exception {
+        long since = changeRepository.findLatestId();
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(unblock);
+        RecordingEmitter healthy = new RecordingEmitter(null);
+        feed.subscribe(stalled, since);
+        feed.subscribe(healthy, since);
+        
+        changeRepository.save(change(5L));
+        changeRepository.save(change(6L));
+        feed.changesCommitted();
+        assertThat(healthy.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(healthy.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+        
+        // The next dispatch finds the stalled send and drops its subscriber before queueing
+        Thread.sleep(SEND_TIMEOUT.toMillis() + 100);
+        changeRepository.save(change(7L));
+        feed.changesCommitted();
+        assertThat(healthy.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(stalled.completed.getCount()).isEqualTo(1);
+        
+        unblock.countDown();
+        assertThat(stalled.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stalled.sent).hasSize(1);
+    }
+    
+    private static StudentChange change(Long studentId) {
+        return StudentChange.builder()
+                .studentId(studentId)
+                .type("DELETED")
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    // Records sends instead of writing them; with a latch, each send blocks until it opens
+    private static final class RecordingEmitter extends SseEmitter {
+        
+        private final CountDownLatch unblock;
+        private final BlockingQueue<SseEventBuilder> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        
+        RecordingEmitter(CountDownLatch unblock) {
+            this.unblock = unblock;
+        }
+        
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (unblock != null) {
+                StudentChangeFeedTest.await(unblock);
+            }
+            sent.add(builder);
+        }
+        
+        @Override
+        public void complete() {
+            completed.countDown();
+            super.complete();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.servosys.service;
+
+import com.servosys.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class StudentRankingTest {
+    
+    @Autowired
+    private StudentService studentService;
+    
+    @Autowired
+    private StudentLeaderboard studentLeaderboard;
+    
+    @Test
+    void yearsOutsideTheStudentRangeAreRejected() {
+        assertThatThrownBy(() -> studentService.getTopStudents(6, null, 0.0, 10))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> studentService.getTopPerformingStudents(0, 0.0, 10))
+                .isInstanceOf(ValidationException.class);
+        assertThat(studentLeaderboard.top(12345, 0.0, 10)).isNull();
+    }
+    
+    @Test
+    void limitsAboveTheMaximumAreRejectedNotTruncated() {
+        assertThatThrownBy(() -> studentService.getTopPerformingStudents(3, 0.0, StudentServiceImpl.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining(String.valueOf(StudentServiceImpl.MAX_PAGE_SIZE));
+        assertThat(studentService.getTopPerformingStudents(3, 0.0, StudentServiceImpl.MAX_PAGE_SIZE)).isNotNull();
+    }
+}
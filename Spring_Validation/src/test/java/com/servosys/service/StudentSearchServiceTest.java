@@ -0,0 +1,94 @@
+package com.servosys.service;
+
+import com.servosys.dto.StudentDTO;
+import com.servosys.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Each test searches for a made-up name fragment of its own, so the students
+ * other tests leave in the shared in-memory database never match.
+ */
+@SpringBootTest
+class StudentSearchServiceTest {
+    
+    @Autowired
+    private StudentService studentService;
+    
+    @Autowired
+    private StudentSearchService searchService;
+    
+    @Test
+    void ranksExactThenPrefixThenInfixMatches() {
+        Long infix = create("Maquorn", "Smith");
+        Long prefix = create("Quornby", "Smith");
+        Long exact = create("Quorn", "Smith");
+        
+        assertThat(ids(searchService.search("quorn", 10))).containsExactly(exact, prefix, infix);
+    }
+    
+    @Test
+    void matchesAcrossFirstAndLastName() {
+        Long student = create("Velmira", "Tostrand");
+        
+        assertThat(ids(searchService.search("mira tost", 10))).containsExactly(student);
+    }
+    
+    @Test
+    void termsShorterThanATrigramStillMatchInsideNames() {
+        Long first = create("Alxqen", "Smith");
+        Long last = create("Jones", "Boxqua");
+        
+        assertThat(ids(searchService.search("xq", 10))).containsExactlyInAnyOrder(first, last);
+    }
+    
+    @Test
+    void pagesPastTrigramFalsePositives() {
+        // Each of these holds both trigrams of "wyvk" ("wyv", "yvk") but never "wyvk" itself
+        for (int i = 0; i < 6; i++) {
+            create("Wyvab", "Cayvk");
+        }
+        Long match = create("Dewyvk", "Smith");
+        
+        assertThat(ids(searchService.search("wyvk", 1))).containsExactly(match);
+    }
+    
+    @Test
+    void accentsAndCaseAreIgnored() {
+        Long student = create("Zélphine", "Orwick");
+        
+        assertThat(ids(searchService.search("ZELPH", 10))).containsExactly(student);
+    }
+    
+    @Test
+    void rejectsBlankTermsAndOutOfRangeLimits() {
+        assertThatThrownBy(() -> searchService.search("  ", 10)).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> searchService.search("ann", 0)).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> searchService.search("ann", StudentSearchService.MAX_RESULTS + 1))
+                .isInstanceOf(ValidationException.class);
+    }
+    
+    private Long create(String firstName, String lastName) {
+        return studentService.createStudent(StudentDTO.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .email("search-" + UUID.randomUUID() + "@example.com")
+                .dateOfBirth(LocalDate.of(2001, 1, 1))
+                .department("Search")
+                .year(1)
+                .cgpa(8.0)
+                .build()).getId();
+    }
+    
+    private static List<Long> ids(List<StudentDTO> students) {
+        return students.stream().map(StudentDTO::getId).toList();
+    }
+}
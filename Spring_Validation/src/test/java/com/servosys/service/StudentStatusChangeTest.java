@@ -0,0 +1,143 @@
+package com.servosys.service;
+
+import com.servosys.dto.StatusChangeRequest;
+import com.servosys.dto.StatusChangeResult;
+import com.servosys.dto.StudentChangeDTO;
+import com.servosys.dto.StudentDTO;
+import com.servosys.dto.StudentStats;
+import com.servosys.event.StudentChangedEvent;
+import com.servosys.event.StudentYearStatusChangedEvent;
+import com.servosys.repository.StudentChangeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@RecordApplicationEvents
+class StudentStatusChangeTest {
+    
+    @Autowired
+    private StudentService studentService;
+    
+    @Autowired
+    private StudentStatsService statsService;
+    
+    @Autowired
+    private StudentChangeFeed changeFeed;
+    
+    @Autowired
+    private StudentChangeRepository changeRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ApplicationEvents events;
+    
+    @Test
+    void eventsCarryTheRealPreviousStatus() {
+        String department = department();
+        StudentDTO unset = studentService.createStudent(student(department, 2));
+        StudentDTO active = studentService.createStudent(student(department, 2));
+        jdbcTemplate.update("UPDATE students SET is_active = NULL WHERE id = ?", unset.getId());
+        statsService.rebuild();
+        events.clear();
+        
+        studentService.deactivateStudent(unset.getId());
+        StatusChangeResult result = studentService.changeStatus(
+                new StatusChangeRequest(Set.of(unset.getId(), active.getId()), null), false);
+        
+        assertThat(result.getIds()).containsExactly(active.getId());
+        List<StudentChangedEvent> changes = events.stream(StudentChangedEvent.class).toList();
+        assertThat(changes).extracting(change -> change.getBefore().getIsActive()).containsExactly(null, true);
+        assertThat(changes).extracting(change -> change.getAfter().getIsActive()).containsExactly(false, false);
+        
+        StudentStats maintained = cohort(department, 2);
+        statsService.rebuild();
+        assertThat(maintained).isEqualTo(cohort(department, 2));
+        assertThat(maintained.getInactive()).isEqualTo(2);
+    }
+    
+    @Test
+    void yearChangeIsOneEventAndACount() {
+        StudentDTO student = studentService.createStudent(student(department(), 5));
+        studentService.getStudentById(student.getId());
+        long since = changeRepository.findLatestId();
+        events.clear();
+        
+        StatusChangeResult result = studentService.changeStatus(new StatusChangeRequest(null, 5), false);
+        
+        assertThat(result.getChanged()).isPositive();
+        assertThat(result.getIds()).isNull();
+        assertThat(events.stream(StudentChangedEvent.class)).isEmpty();
+        assertThat(events.stream(StudentYearStatusChangedEvent.class))
+                .containsExactly(new StudentYearStatusChangedEvent(5, false, result.getChanged()));
+        assertThat(studentService.getStudentById(student.getId()).getStudent().getIsActive()).isFalse();
+        
+        List<StudentChangeDTO> feed = changeFeed.read(since, 100).getChanges();
+        assertThat(feed).hasSize(1);
+        assertThat(feed.get(0).getType()).isEqualTo("YEAR_DEACTIVATED");
+        assertThat(feed.get(0).getYear()).isEqualTo(5);
+        assertThat(feed.get(0).getChanged()).isEqualTo(result.getChanged());
+        
+        studentService.changeStatus(new StatusChangeRequest(null, 5), true);
+    }
+    
+    @Test
+    void yearChangeUpdatesCohortsWithoutARebuild() {
+        String department = department();
+        studentService.createStudent(student(department, 4));
+        StudentDTO inactive = studentService.createStudent(student(department, 4));
+        studentService.deactivateStudent(inactive.getId());
+        String untouched = department();
+        StudentDTO other = studentService.createStudent(student(untouched, 3));
+        // Behind the service's back: only a rebuild would see it
+        jdbcTemplate.update("UPDATE students SET is_active = FALSE WHERE id = ?", other.getId());
+        
+        studentService.changeStatus(new StatusChangeRequest(null, 4), true);
+        StudentStats activated = cohort(department, 4);
+        assertThat(activated.getActive()).isEqualTo(2);
+        assertThat(cohort(untouched, 3).getActive()).isEqualTo(1);
+        
+        studentService.changeStatus(new StatusChangeRequest(null, 4), false);
+        StudentStats deactivated = cohort(department, 4);
+        assertThat(deactivated.getActive()).isZero();
+        assertThat(deactivated.getInactive()).isEqualTo(2);
+        
+        statsService.rebuild();
+        assertThat(cohort(department, 4)).isEqualTo(deactivated);
+        assertThat(cohort(untouched, 3).getActive()).isZero();
+        studentService.changeStatus(new StatusChangeRequest(null, 4), true);
+    }
+    
+    private StudentStats cohort(String department, int year) {
+        return statsService.getStats().getCohorts().stream()
+                .filter(stats -> department.equals(stats.getDepartment()) && stats.getYear() == year)
+                .findFirst().orElseThrow();
+    }
+    
+    private static String department() {
+        return "Status-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+    
+    private static StudentDTO student(String department, int year) {
+        return StudentDTO.builder()
+                .firstName("Status")
+                .lastName("Student")
+                .email("status-" + UUID.randomUUID() + "@example.com")
+                .dateOfBirth(LocalDate.of(2001, 1, 1))
+                .department(department)
+                .year(year)
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.servosys.validation;
+
+import com.servosys.dto.StudentDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * The compiled StudentDTO validator must report exactly what Hibernate Validator reports.
+ */
+class ConstraintCompilerTest {
+    
+    private static ValidatorFactory factory;
+    private static Validator hibernateValidator;
+    private static final CompiledValidator<StudentDTO> compiled = ConstraintCompiler.compile(StudentDTO.class);
+    
+    @BeforeAll
+    static void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        hibernateValidator = factory.getValidator();
+    }
+    
+    @AfterAll
+    static void tearDown() {
+        factory.close();
+    }
+    
+    @Test
+    void validStudentHasNoViolations() {
+        assertThat(compiled.validate(valid())).isEmpty();
+        assertSameAsHibernateValidator(valid());
+    }
+    
+    @Test
+    void matchesHibernateValidatorOnInvalidInput() {
+        List<Consumer<StudentDTO>> mutations = List.of(
+                s -> s.setFirstName(null),
+                s -> s.setFirstName(" "),
+                s -> s.setFirstName("A"),
+                s -> s.setLastName("x".repeat(51)),
+                s -> s.setEmail("not-an-email"),
+                s -> s.setEmail("a..b@example.com"),
+                s -> s.setEmail("ann@example..com"),
+                s -> s.setEmail("ann@x"),
+                s -> s.setEmail("ann@" + "d".repeat(64) + ".com"),
+                s -> s.setEmail("élève@école.fr"),
+                s -> s.setEmail(""),
+                s -> s.setPhoneNumber("0123456789"),
+                s -> s.setPhoneNumber("+19876543210"),
+                s -> s.setDateOfBirth(LocalDate.now()),
+                s -> s.setDateOfBirth(null),
+                s -> s.setDepartment(""),
+                s -> s.setYear(0),
+                s -> s.setYear(6),
+                s -> s.setYear(null),
+                s -> s.setCgpa(-0.0001),
+                s -> s.setCgpa(10.0),
+                s -> s.setCgpa(10.000000001),
+                s -> s.setCgpa(Double.NaN),
+                s -> s.setCgpa(Double.POSITIVE_INFINITY));
+        for (Consumer<StudentDTO> mutation : mutations) {
+            StudentDTO student = valid();
+            mutation.accept(student);
+            assertSameAsHibernateValidator(student);
+        }
+    }
+    
+    @Test
+    void validateFieldsChecksOnlyTheNamedFields() {
+        StudentDTO student = valid();
+        student.setFirstName("A");
+        student.setYear(9);
+        
+        assertThat(compiled.validateFields(student, List.of("year", "unknown")))
+                .extracting(Violation::field, Violation::code)
+                .containsExactly(tuple("year", "Max"));
+    }
+    
+    private static void assertSameAsHibernateValidator(StudentDTO student) {
+        Set<String> expected = hibernateValidator.validate(student).stream()
+                .map(ConstraintCompilerTest::describe)
+                .collect(Collectors.toSet());
+        Set<String> actual = compiled.validate(student).stream()
+                .map(v -> v.field() + "|" + v.code() + "|" + v.message())
+                .collect(Collectors.toSet());
+        assertThat(actual).as(student.toString()).isEqualTo(expected);
+    }
+    
+    private static String describe(ConstraintViolation<StudentDTO> violation) {
+        return violation.getPropertyPath() + "|"
+                + violation.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName() + "|"
+                + violation.getMessage();
+    }
+    
+    private static StudentDTO valid() {
+        return StudentDTO.builder()
+                .firstName("Ann")
+                .lastName("Lee")
+                .email("ann.lee@example.com")
+                .phoneNumber("9876543210")
+                .dateOfBirth(LocalDate.of(2000, 1, 1))
+                .department("Computer Science")
+                .year(2)
+                .cgpa(9.5)
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.servosys.benchmark;
+
+import com.servosys.dto.ApiResponse;
+import com.servosys.dto.CursorPage;
+import com.servosys.dto.StudentDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the ApiResponse envelope as the controller returns
+ * it: a single student, and a 50-row keyset page (the default limit) as JSON
+ * and as CBOR. Uses default mappers, which write dates as ISO strings like the
+ * application's Boot-configured one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+    
+    private static final int PAGE = 50;
+    
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private ApiResponse<StudentDTO> single;
+    private ApiResponse<CursorPage<StudentDTO>> page;
+    
+    @Setup
+    public void setUp() {
+        json = JsonMapper.builder().build();
+        cbor = CBORMapper.builder().build();
+        StudentDTO student = SyntheticStudents.dto(42);
+        student.setId(43L);
+        student.setIsActive(true);
+        single = ApiResponse.success(student, "Student retrieved successfully");
+        List<StudentDTO> rows = new ArrayList<>(PAGE + 1);
+        for (int i = 0; i <= PAGE; i++) {
+            StudentDTO row = SyntheticStudents.dto(i);
+            row.setId(i + 1L);
+            row.setIsActive(true);
+            rows.add(row);
+        }
+        page = ApiResponse.success(CursorPage.of(rows, PAGE, StudentDTO::getId), "Students retrieved successfully");
+    }
+    
+    @Benchmark
+    public byte[] singleJson() {
+        return json.writeValueAsBytes(single);
+    }
+    
+    @Benchmark
+    public byte[] pageJson() {
+        return json.writeValueAsBytes(page);
+    }
+    
+    @Benchmark
+    public byte[] pageCbor() {
+        return cbor.writeValueAsBytes(page);
+    }
+}
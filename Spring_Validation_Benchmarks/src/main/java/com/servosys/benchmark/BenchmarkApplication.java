@@ -0,0 +1,67 @@
+package com.servosys.benchmark;
+
+import com.servosys.SpringValidationApplication;
+import com.servosys.dto.BatchItemResult;
+import com.servosys.dto.StudentDTO;
+import com.servosys.service.StudentService;
+import com.servosys.service.StudentServiceImpl;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Starts the application for a benchmark run: its own in-memory database,
+ * no SQL logging and no banner, so neither the console nor a previous run
+ * shows up in the numbers.
+ */
+public final class BenchmarkApplication {
+    
+    private BenchmarkApplication() {
+    }
+    
+    public static ConfigurableApplicationContext start(WebApplicationType webApplicationType, Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>(Map.of(
+                "spring.datasource.url", "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.jpa.show-sql", "false",
+                "spring.jpa.properties.hibernate.format_sql", "false",
+                "spring.h2.console.enabled", "false",
+                "spring.main.banner-mode", "off",
+                "logging.level.root", "WARN",
+                "logging.level.org.hibernate.SQL", "WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN",
+                "logging.level.com.servosys", "WARN"));
+        properties.putAll(overrides);
+        // As command-line arguments: default properties would lose to application.properties
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(SpringValidationApplication.class)
+                .web(webApplicationType)
+                .run(args);
+    }
+    
+    /**
+     * Inserts students {@code 0..count-1} through the service's batch path;
+     * on a fresh database student {@code i} gets id {@code i + 1}.
+     */
+    public static void seed(StudentService studentService, int count) {
+        for (int from = 0; from < count; from += StudentServiceImpl.MAX_BATCH_SIZE) {
+            int to = Math.min(count, from + StudentServiceImpl.MAX_BATCH_SIZE);
+            List<StudentDTO> batch = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                batch.add(SyntheticStudents.dto(i));
+            }
+            for (BatchItemResult result : studentService.saveStudentsInBatch(batch)) {
+                if (!result.isSuccess()) {
+                    throw new IllegalStateException("Seeding failed at item " + (from + result.getIndex()) + ": " + result.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.servosys.benchmark;
+
+import com.servosys.dto.StudentDTO;
+import com.servosys.model.Student;
+import com.servosys.service.StudentMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO conversion through {@link StudentMapper}, which every write
+ * of the service goes through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentConversionBenchmark {
+    
+    private static final int PAGE = 50;
+    
+    private Student student;
+    private Student[] page;
+    
+    @Setup
+    public void setUp() {
+        student = SyntheticStudents.entity(42);
+        page = new Student[PAGE];
+        for (int i = 0; i < PAGE; i++) {
+            page[i] = SyntheticStudents.entity(i);
+        }
+    }
+    
+    @Benchmark
+    public StudentDTO convertOne() {
+        return StudentMapper.toDto(student);
+    }
+    
+    // A page of distinct entities, so the profile is not that of a single hot object
+    @Benchmark
+    @OperationsPerInvocation(PAGE)
+    public void convertPage(Blackhole blackhole) {
+        for (Student row : page) {
+            blackhole.consume(StudentMapper.toDto(row));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.servosys.benchmark;
+
+import com.servosys.dto.StudentDTO;
+import com.servosys.model.Student;
+import com.servosys.repository.StudentRepository;
+import com.servosys.service.StudentMapper;
+import com.servosys.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One keyset page read three ways over the same rows: the StudentDTO
+ * projection the read paths use ({@code findDtosAfter}), and managed entities
+ * ({@code findByIdGreaterThanOrderByIdAsc}) copied with
+ * {@link StudentMapper#toDto}, in a read-only transaction and in a read-write
+ * one as the read paths ran before the projections. Meant to be run with the
+ * GC profiler; allocation per row is {@code gc.alloc.rate.norm / rows}:
+ * <pre>
+ * -Djmh.args="StudentProjection -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentProjectionBenchmark {
+    
+    private static final int STUDENTS = 20_000;
+    
+    @Param({"50", "500"})
+    public int rows;
+    
+    private ConfigurableApplicationContext context;
+    private StudentRepository studentRepository;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE, Map.of());
+        studentRepository = context.getBean(StudentRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+        BenchmarkApplication.seed(context.getBean(StudentService.class), STUDENTS);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<StudentDTO> dtoProjection() {
+        long afterId = randomCursor();
+        return readOnly.execute(status -> studentRepository.findDtosAfter(afterId, Limit.of(rows)));
+    }
+    
+    @Benchmark
+    public List<StudentDTO> entitiesReadOnly() {
+        long afterId = randomCursor();
+        return readOnly.execute(status -> toDtos(studentRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(rows))));
+    }
+    
+    // Managed entities with dirty-checking snapshots and a flush on commit
+    @Benchmark
+    public List<StudentDTO> entitiesReadWrite() {
+        long afterId = randomCursor();
+        return readWrite.execute(status -> toDtos(studentRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(rows))));
+    }
+    
+    private static List<StudentDTO> toDtos(List<Student> students) {
+        List<StudentDTO> dtos = new ArrayList<>(students.size());
+        for (Student student : students) {
+            dtos.add(StudentMapper.toDto(student));
+        }
+        return dtos;
+    }
+    
+    // Always a full page: the cursor stays at least a page short of the last id
+    private long randomCursor() {
+        return ThreadLocalRandom.current().nextInt(STUDENTS - rows);
+    }
+}
@@ -0,0 +1,190 @@
+package com.servosys.benchmark;
+
+import com.servosys.dto.StudentDTO;
+import com.servosys.model.Student;
+import com.servosys.service.DepartmentDictionary;
+import com.servosys.service.StudentMapper;
+import com.servosys.service.StudentService;
+import com.servosys.util.NameNormalizer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name search at scale: the {@code LOWER(...) LIKE '%term%'} query that
+ * search replaced, run as it was (every match, as entities, then converted),
+ * against the current search through StudentService (20 results, prefix
+ * ranges, then trigram candidates).
+ * <p>
+ * The terms cover a common and a rare name prefix, a common infix, a rarer
+ * infix and an infix nobody has, all built from common trigrams:
+ * <pre>
+ * mar     prefix of first and last names (Mary, Mark, Margaret, Martson...)
+ * nakura  prefix of one last name
+ * ers     infix only (Peterson, Andersen...), a single trigram
+ * rtley   infix only (Hartley, Martley)
+ * rsonb   no match, though "son" is one of the commonest trigrams
+ * </pre>
+ * The names are drawn from 80 first names and 480 last names, so trigram
+ * frequencies are skewed as in real data rather than uniform. The database is
+ * file-backed under {@code target/search-bench-<students>}, seeded once over
+ * JDBC (search index included) and reused by every later trial and run;
+ * seeding 1M students takes about a quarter of an hour on one CPU, and each
+ * likeScan call several seconds. Smaller runs:
+ * {@code -Djmh.args="StudentSearch -p students=100000"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+// Long warmups: each trial reopens the database, whose pages are read back into H2's cache
+@Warmup(iterations = 5, time = 4)
+@Measurement(iterations = 5, time = 4)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class StudentSearchBenchmark {
+    
+    private static final String OLD_QUERY = "SELECT s FROM Student s WHERE LOWER(s.firstName) LIKE LOWER(CONCAT('%', :name, '%')) " +
+            "OR LOWER(s.lastName) LIKE LOWER(CONCAT('%', :name, '%'))";
+    private static final int LIMIT = 20;
+    private static final int SEED_BATCH = 5_000;
+    
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+            "Christopher", "Nancy", "Daniel", "Lisa", "Matthew", "Betty", "Anthony", "Margaret", "Mark", "Sandra",
+            "Donald", "Ashley", "Steven", "Kimberly", "Paul", "Emily", "Andrew", "Donna", "Joshua", "Michelle",
+            "Aarav", "Priya", "Rahul", "Ananya", "Vikram", "Sneha", "Arjun", "Kavya", "Rohan", "Isha",
+            "Wei", "Mei", "Hiroshi", "Yuki", "Min", "Ji", "Omar", "Fatima", "Ali", "Layla",
+            "Mateo", "Sofia", "Lucas", "Valentina", "Hugo", "Chloe", "Liam", "Emma", "Noah", "Olivia",
+            "Ivan", "Olga", "Dmitri", "Anya", "Kwame", "Amara", "Tariq", "Zara", "Nikolai", "Ingrid"};
+    private static final String[] LAST_NAME_ROOTS = {
+            "Ander", "Bright", "Carl", "Dal", "Eriks", "Fern", "Gold", "Hart", "Iver", "John",
+            "Kumar", "Lind", "Mart", "Nils", "Ols", "Peter", "Quinn", "Rich", "Sand", "Thom",
+            "Ust", "Van", "Wil", "Yama", "Zim", "Bal", "Chandr", "Desh", "Ferr", "Garc",
+            "Hern", "Kowal", "Lop", "Mor", "Nak", "Petr", "Ros", "Sant", "Tan", "Vas"};
+    private static final String[] LAST_NAME_SUFFIXES = {
+            "son", "sen", "berg", "man", "ez", "ski", "ova", "ini", "ton", "ley", "ando", "ura"};
+    
+    @Param({"1000000"})
+    public int students;
+    
+    @Param({"mar", "nakura", "ers", "rtley", "rsonb"})
+    public String term;
+    
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Path database = Path.of("target", "search-bench-" + students).toAbsolutePath();
+        context = BenchmarkApplication.start(WebApplicationType.NONE, Map.of(
+                "spring.datasource.url", "jdbc:h2:file:" + database.resolve("studentdb") + ";CACHE_SIZE=1048576"));
+        studentService = context.getBean(StudentService.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        Long seeded = jdbc.queryForObject("SELECT COUNT(*) FROM students", Long.class);
+        if (seeded == 0) {
+            seed(jdbc, context.getBean(DepartmentDictionary.class));
+        } else if (seeded != students) {
+            throw new IllegalStateException(database + " holds " + seeded + " students, expected " + students + "; delete it");
+        }
+        Long matches = readOnly.execute(status -> entityManager.createQuery(
+                "SELECT COUNT(s) FROM Student s WHERE LOWER(s.firstName) LIKE :pattern OR LOWER(s.lastName) LIKE :pattern " +
+                        "OR CONCAT(LOWER(s.firstName), ' ', LOWER(s.lastName)) LIKE :pattern", Long.class)
+                .setParameter("pattern", "%" + term + "%")
+                .getSingleResult());
+        System.out.printf(Locale.ROOT, "%n\"%s\" matches %d of %d students%n", term, matches, students);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<StudentDTO> likeScan() {
+        return readOnly.execute(status -> entityManager.createQuery(OLD_QUERY, Student.class)
+                .setParameter("name", term)
+                .getResultList()
+                .stream()
+                .map(StudentMapper::toDto)
+                .toList());
+    }
+    
+    @Benchmark
+    public List<StudentDTO> search() {
+        return studentService.searchStudentsByName(term, LIMIT);
+    }
+    
+    private void seed(JdbcTemplate jdbc, DepartmentDictionary departments) {
+        int[] departmentIds = new int[SyntheticStudents.DEPARTMENTS];
+        for (int d = 0; d < departmentIds.length; d++) {
+            departmentIds[d] = departments.resolve(SyntheticStudents.department(d));
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Date dateOfBirth = Date.valueOf(LocalDate.of(2001, 1, 1));
+        long started = System.nanoTime();
+        for (int from = 0; from < students; from += SEED_BATCH) {
+            List<Object[]> rows = new ArrayList<>(SEED_BATCH);
+            List<Object[]> grams = new ArrayList<>(SEED_BATCH * 16);
+            for (int i = from; i < Math.min(students, from + SEED_BATCH); i++) {
+                long id = i + 1L;
+                String first = FIRST_NAMES[(int) (mix(i) % FIRST_NAMES.length)];
+                String last = LAST_NAME_ROOTS[(int) (mix(i + 0x5bd1e995L) % LAST_NAME_ROOTS.length)]
+                        + LAST_NAME_SUFFIXES[(int) (mix(i + 0x27d4eb2dL) % LAST_NAME_SUFFIXES.length)];
+                rows.add(new Object[] {id, first, last, NameNormalizer.normalize(first), NameNormalizer.normalize(last),
+                        "student" + i + "@example.com", departmentIds[i % departmentIds.length], 1 + i % 5,
+                        4.0 + (i * 7919L % 600) / 100.0, dateOfBirth, now, now});
+                for (String gram : NameNormalizer.trigrams(NameNormalizer.fullName(first, last))) {
+                    grams.add(new Object[] {gram, id});
+                }
+            }
+            jdbc.batchUpdate("INSERT INTO students (id, first_name, last_name, first_name_norm, last_name_norm, email, " +
+                    "department_id, year_course, cgpa, date_of_birth, created_at, updated_at, is_active, version) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE, 0)", rows);
+            jdbc.batchUpdate("INSERT INTO student_name_trigrams (gram, student_id) VALUES (?, ?)", grams);
+        }
+        jdbc.execute("ANALYZE");
+        System.out.printf(Locale.ROOT, "%nSeeded %d students in %.0f s%n", students, (System.nanoTime() - started) / 1e9);
+    }
+    
+    // Spreads consecutive indexes over the name lists without a random source
+    private static long mix(long i) {
+        long h = i * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 29;
+        return (h & Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,125 @@
+package com.servosys.benchmark;
+
+import com.servosys.config.CacheConfig;
+import com.servosys.dto.CursorPage;
+import com.servosys.dto.StudentDTO;
+import com.servosys.dto.VersionedStudent;
+import com.servosys.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StudentServiceImpl through its Spring proxy (transactions, caching, metrics)
+ * over a seeded in-memory database, without the web layer. Reads run on four
+ * threads so connection-pool and cache contention show up; ids and cursors are
+ * drawn uniformly from the seeded population.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class StudentServiceBenchmark {
+    
+    private static final String[] SEARCH_TERMS = {"ann", "lee", "mar", "son", "kum", "ali", "jo", "an"};
+    private static final int PAGE = 50;
+    
+    @Param({"10000", "100000"})
+    public int students;
+    
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private Cache studentCache;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE, Map.of());
+        studentService = context.getBean(StudentService.class);
+        studentCache = context.getBean(CacheManager.class).getCache(CacheConfig.STUDENTS);
+        BenchmarkApplication.seed(studentService, students);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public VersionedStudent getStudentByIdCached() {
+        // A hot set well inside the cache's capacity
+        return studentService.getStudentById(1L + ThreadLocalRandom.current().nextInt(1000));
+    }
+    
+    @Benchmark
+    public VersionedStudent getStudentByIdUncached() {
+        // Includes the cost of the eviction, which is small next to the query
+        long id = randomId();
+        studentCache.evict(id);
+        return studentService.getStudentById(id);
+    }
+    
+    @Benchmark
+    public CursorPage<StudentDTO> getAllStudentsPage() {
+        return studentService.getAllStudents(randomId() - 1, PAGE);
+    }
+    
+    @Benchmark
+    public CursorPage<StudentDTO> getStudentsByDepartmentPage() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return studentService.getStudentsByDepartment(SyntheticStudents.department(random.nextInt(SyntheticStudents.DEPARTMENTS)),
+                null, PAGE);
+    }
+    
+    @Benchmark
+    public CursorPage<StudentDTO> getActiveStudentsPage() {
+        return studentService.getActiveStudents(randomId() - 1, PAGE);
+    }
+    
+    @Benchmark
+    public List<StudentDTO> searchStudentsByName() {
+        return studentService.searchStudentsByName(SEARCH_TERMS[ThreadLocalRandom.current().nextInt(SEARCH_TERMS.length)], 20);
+    }
+    
+    @Benchmark
+    public List<StudentDTO> getTopStudents() {
+        return studentService.getTopStudents(1 + ThreadLocalRandom.current().nextInt(5), null, null, 10);
+    }
+    
+    // Single-threaded: concurrent patches of one row fail their optimistic lock and end the run
+    @Benchmark
+    @Threads(1)
+    public VersionedStudent patchStudent() {
+        // Random values, so nearly every call writes a row, a version and a change event
+        StudentDTO changes = new StudentDTO();
+        changes.setCgpa(ThreadLocalRandom.current().nextInt(400, 1000) / 100.0);
+        return studentService.patchStudent(randomId(), changes, Set.of("cgpa"), null);
+    }
+    
+    private long randomId() {
+        return 1L + ThreadLocalRandom.current().nextInt(students);
+    }
+}
@@ -0,0 +1,86 @@
+package com.servosys.benchmark;
+
+import com.servosys.dto.StudentDTO;
+import com.servosys.validation.CompiledValidator;
+import com.servosys.validation.ConstraintCompiler;
+import com.servosys.validation.Violation;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jakarta validation of a StudentDTO request body: Hibernate Validator, as
+ * used by {@code @Valid} on the controller, against the validator that
+ * {@link ConstraintCompiler} builds from the same annotations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentValidationBenchmark {
+    
+    private ValidatorFactory factory;
+    private Validator hibernateValidator;
+    private CompiledValidator<StudentDTO> compiledValidator;
+    private StudentDTO valid;
+    private StudentDTO invalid;
+    
+    @Setup
+    public void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        hibernateValidator = factory.getValidator();
+        compiledValidator = ConstraintCompiler.compile(StudentDTO.class);
+        valid = SyntheticStudents.dto(42);
+        // Fails five constraints: blank first name, email, phone, future date of birth, year
+        invalid = SyntheticStudents.dto(42);
+        invalid.setFirstName(" ");
+        invalid.setEmail("not-an-email");
+        invalid.setPhoneNumber("12");
+        invalid.setDateOfBirth(LocalDate.now().plusYears(1));
+        invalid.setYear(9);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+    
+    @Benchmark
+    public Set<ConstraintViolation<StudentDTO>> hibernateValid() {
+        return hibernateValidator.validate(valid);
+    }
+    
+    @Benchmark
+    public Set<ConstraintViolation<StudentDTO>> hibernateInvalid() {
+        return hibernateValidator.validate(invalid);
+    }
+    
+    @Benchmark
+    public List<Violation> compiledValid() {
+        return compiledValidator.validate(valid);
+    }
+    
+    @Benchmark
+    public List<Violation> compiledInvalid() {
+        return compiledValidator.validate(invalid);
+    }
+}
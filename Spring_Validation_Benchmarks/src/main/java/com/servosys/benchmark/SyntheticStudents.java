@@ -0,0 +1,65 @@
+package com.servosys.benchmark;
+
+import com.servosys.dto.StudentDTO;
+import com.servosys.model.Student;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The synthetic population of Spring_Validation/loadtest/seed-students.sh, made
+ * deterministic: student {@code i} is {@code student<i>@example.com} in
+ * {@code Dept<i % 40>}, so on a fresh database it gets id {@code i + 1}.
+ */
+public final class SyntheticStudents {
+    
+    public static final int DEPARTMENTS = 40;
+    
+    private static final String[] FIRST_NAMES = {"Ann", "Lee", "Maria", "Jonas", "Kumar", "Ali", "Joanna", "Sonia", "Marco", "Hanna"};
+    private static final String[] LAST_NAMES = {"Lee", "Anderson", "Kumari", "Johnson", "Alison", "Marsh", "Brown", "Santos"};
+    private static final LocalDate DATE_OF_BIRTH = LocalDate.of(2001, 1, 1);
+    
+    private SyntheticStudents() {
+    }
+    
+    public static StudentDTO dto(int i) {
+        return StudentDTO.builder()
+                .firstName(FIRST_NAMES[i % FIRST_NAMES.length])
+                .lastName(LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length])
+                .email("student" + i + "@example.com")
+                .phoneNumber("+9198" + String.format("%08d", i % 100_000_000))
+                .dateOfBirth(DATE_OF_BIRTH)
+                .department(department(i))
+                .year(1 + i % 5)
+                .cgpa(cgpa(i))
+                .build();
+    }
+    
+    public static Student entity(int i) {
+        StudentDTO dto = dto(i);
+        LocalDateTime now = LocalDateTime.now();
+        return Student.builder()
+                .id(i + 1L)
+                .firstName(dto.getFirstName())
+                .lastName(dto.getLastName())
+                .email(dto.getEmail())
+                .phoneNumber(dto.getPhoneNumber())
+                .dateOfBirth(dto.getDateOfBirth())
+                .department(dto.getDepartment())
+                .year(dto.getYear())
+                .cgpa(dto.getCgpa())
+                .createdAt(now)
+                .updatedAt(now)
+                .version(0L)
+                .build();
+    }
+    
+    public static String department(int i) {
+        return "Dept" + (i % DEPARTMENTS);
+    }
+    
+    // Spread over [4.00, 10.00) like the seed script, without its randomness
+    private static double cgpa(int i) {
+        return 4.0 + (i * 7919L % 600) / 100.0;
+    }
+}
@@ -0,0 +1,398 @@
+package com.servosys.benchmark.http;
+
+import com.servosys.benchmark.BenchmarkApplication;
+import com.servosys.benchmark.SyntheticStudents;
+import com.servosys.dto.StudentDTO;
+import com.servosys.service.StudentService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Throughput and latency of every StudentController endpoint against the
+ * application on an embedded Tomcat, over an in-memory database seeded with
+ * {@code --students} synthetic students (100k by default; for 1M raise the heap,
+ * e.g. {@code -Dload.heap=-Xmx4g}).
+ * Each scenario is a closed loop: a warmup phase whose results are dropped,
+ * then {@code --seconds} of measurement with latencies recorded in an
+ * HdrHistogram.
+ *
+ * <p>The run is written to {@code <output>/load-<timestamp>-<commit>.json}, so
+ * two commits compare with e.g.
+ * <pre>
+ * jq -r '.scenarios[] | [.name, .throughput, .p99Ms] | @tsv' target/load-results/load-*-abc1234.json
+ * </pre>
+ *
+ * Admission control is switched off: the suite measures the endpoints, not
+ * the rate limits in front of them. The load generator shares the JVM and the
+ * CPUs with the server, so compare runs made on the same machine only. The SSE
+ * change tail is not a request/response endpoint and is left out.
+ *
+ * <p>With {@code --base-url} the suite starts nothing and loads an app already
+ * running there, seeded with {@code --students} by loadtest/seed-students.sh;
+ * this is how the scripts in loadtest/ drive it (see loadtest/common.sh). Each
+ * scenario then runs at exactly {@code --concurrency} and prints one JSON line
+ * tagged with {@code --label}, and no results file is written.
+ */
+public final class StudentHttpLoadSuite {
+    
+    private static final String API = "/api/v1/students";
+    private static final String[] SEARCH_TERMS = {"ann", "lee", "mar", "son", "kum", "ali", "jo", "an"};
+    private static final int BATCH_SIZE = 100;
+    private static final int BULK_STATUS_IDS = 10;
+    private static final Pattern CREATED_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+    
+    private final String baseUrl;
+    private final int students;
+    private final ObjectMapper json = JsonMapper.builder().build();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    // Written by "create", consumed by "delete", so deletes never touch the seeded rows
+    private final Queue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    // Prefixed per run, so runs against the same app never reuse an email
+    private final String emailPrefix = Long.toString(System.currentTimeMillis(), 36) + "-";
+    private final AtomicLong uniqueEmails = new AtomicLong();
+    
+    private StudentHttpLoadSuite(String baseUrl, int students) {
+        this.baseUrl = baseUrl;
+        this.students = students;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int students = Integer.parseInt(options.getOrDefault("students", "100000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "10"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup-seconds", "5"));
+        Set<String> only = Arrays.stream(options.getOrDefault("scenarios", "").split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
+        Path output = Path.of(options.getOrDefault("output", "target/load-results"));
+        Path appDir = Path.of(options.getOrDefault("app-dir", "../Spring_Validation"));
+        
+        String target = options.get("base-url");
+        if (target != null) {
+            StudentHttpLoadSuite suite = new StudentHttpLoadSuite(target, students);
+            for (Scenario scenario : suite.select(only)) {
+                if (warmupSeconds > 0) {
+                    suite.run(scenario, concurrency, Duration.ofSeconds(warmupSeconds));
+                }
+                ScenarioResult result = suite.run(scenario, concurrency, Duration.ofSeconds(seconds));
+                ObjectNode line = suite.json.createObjectNode().put("label", options.getOrDefault("label", ""));
+                line.setAll((ObjectNode) suite.json.valueToTree(result));
+                System.out.println(suite.json.writeValueAsString(line));
+            }
+            return;
+        }
+        
+        // The error scenarios' 4xx warnings would bury the table; loadtest/error-paths.sh measures their logging
+        Map<String, Object> overrides = Map.of(
+                "server.port", "0",
+                "app.admission.enabled", "false",
+                "logging.level.com.servosys.exception", "ERROR");
+        try (ConfigurableApplicationContext context = BenchmarkApplication.start(WebApplicationType.SERVLET, overrides)) {
+            StudentService studentService = context.getBean(StudentService.class);
+            long seedStart = System.nanoTime();
+            BenchmarkApplication.seed(studentService, students);
+            double seedSeconds = (System.nanoTime() - seedStart) / 1e9;
+            verifySeed(studentService, students);
+            System.out.printf(Locale.ROOT, "Seeded %d students in %.1f s%n", students, seedSeconds);
+            
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            StudentHttpLoadSuite suite = new StudentHttpLoadSuite(baseUrl, students);
+            List<Scenario> scenarios = suite.select(only);
+            
+            List<ScenarioResult> results = new ArrayList<>();
+            System.out.printf(Locale.ROOT, "%-20s %5s %9s %7s %10s %8s %8s %8s %8s %8s%n",
+                    "scenario", "conc", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms");
+            for (Scenario scenario : scenarios) {
+                int scenarioConcurrency = Math.min(concurrency, scenario.maxConcurrency());
+                suite.run(scenario, scenarioConcurrency, Duration.ofSeconds(warmupSeconds));
+                ScenarioResult result = suite.run(scenario, scenarioConcurrency, Duration.ofSeconds(seconds));
+                System.out.printf(Locale.ROOT, "%-20s %5d %9d %7d %10.1f %8.2f %8.2f %8.2f %8.2f %8.2f%n",
+                        result.name(), result.concurrency(), result.requests(), result.errors(), result.throughput(),
+                        result.p50Ms(), result.p90Ms(), result.p99Ms(), result.p999Ms(), result.maxMs());
+                results.add(result);
+            }
+            
+            String commit = git(appDir, "rev-parse", "--short", "HEAD");
+            boolean dirty = !git(appDir, "status", "--porcelain", "--", ".").isEmpty();
+            LocalDateTime now = LocalDateTime.now();
+            Run run = new Run(commit, dirty, now, System.getProperty("java.version"),
+                    Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().maxMemory() / (1024 * 1024),
+                    students, concurrency, warmupSeconds, seconds, seedSeconds, results);
+            Files.createDirectories(output);
+            Path file = output.resolve("load-" + now.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + "-"
+                    + commit + (dirty ? "-dirty" : "") + ".json");
+            suite.json.writer(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), run);
+            System.out.println("Results written to " + file);
+        }
+    }
+    
+    private List<Scenario> scenarios() {
+        return List.of(
+                Scenario.of("create", 201, this::createStudent),
+                Scenario.of("batch", 200, 4, random -> post(API + "/batch", batchBody())),
+                Scenario.of("get-by-id", 200, random -> get(API + "/" + randomId(random))),
+                // Error paths: a ResourceNotFoundException, a ValidationException and a failed @Valid
+                Scenario.of("missing", 404, random -> get(API + "/" + (students + randomId(random)))),
+                Scenario.of("invalid", 400, random -> get(API + "?limit=0")),
+                Scenario.of("invalid-body", 400, random -> post(API, "{}")),
+                Scenario.of("list", 200, random -> get(API + "?after=" + (randomId(random) - 1) + "&limit=50")),
+                Scenario.of("list-ndjson", 200, 2, random -> ndjson(API)),
+                Scenario.of("update", 200, random -> {
+                    long id = randomId(random);
+                    StudentDTO student = SyntheticStudents.dto((int) id - 1);
+                    student.setCgpa(randomCgpa(random));
+                    return send("PUT", API + "/" + id, body(student), "application/json");
+                }),
+                Scenario.of("patch", 200, random -> send("PATCH", API + "/" + randomId(random),
+                        "{\"cgpa\":" + randomCgpa(random) + "}", "application/merge-patch+json")),
+                Scenario.of("delete", 200, random -> {
+                    Long id = createdIds.poll();
+                    return id == null ? null : send("DELETE", API + "/" + id, null, null);
+                }),
+                Scenario.of("department", 200, random -> get(API + "/department/" + randomDepartment(random) + "?limit=50")),
+                Scenario.of("department-ndjson", 200, 4, random -> ndjson(API + "/department/" + randomDepartment(random))),
+                Scenario.of("search", 200, random -> get(API + "/search?name=" + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)])),
+                Scenario.of("deactivate", 200, random -> send("PATCH", API + "/" + randomId(random) + "/deactivate", null, null)),
+                Scenario.of("activate", 200, random -> send("PATCH", API + "/" + randomId(random) + "/activate", null, null)),
+                Scenario.of("bulk-deactivate", 200, random -> send("PATCH", API + "/deactivate", bulkStatusBody(random), "application/json")),
+                Scenario.of("bulk-activate", 200, random -> send("PATCH", API + "/activate", bulkStatusBody(random), "application/json")),
+                Scenario.of("active", 200, random -> get(API + "/active?after=" + (randomId(random) - 1) + "&limit=50")),
+                Scenario.of("active-ndjson", 200, 2, random -> ndjson(API + "/active")),
+                Scenario.of("stats", 200, random -> get(API + "/stats")),
+                Scenario.of("top-performing", 200, random -> get(API + "/top-performing?year=" + (1 + random.nextInt(5)) + "&minCgpa=9.5")),
+                Scenario.of("rankings", 200, random -> get(API + "/rankings?year=" + (1 + random.nextInt(5)) + "&limit=10")),
+                Scenario.of("changes", 200, random -> get(API + "/changes?since=" + random.nextInt(students) + "&limit=500")));
+    }
+    
+    private List<Scenario> select(Set<String> names) {
+        List<Scenario> selected = scenarios().stream()
+                .filter(scenario -> names.isEmpty() || names.contains(scenario.name()))
+                .toList();
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("No scenario matches " + names);
+        }
+        return selected;
+    }
+    
+    /**
+     * Keeps {@code concurrency} requests in flight for {@code duration}. A
+     * scenario that runs out of work (delete without created ids) stops early.
+     */
+    private ScenarioResult run(Scenario scenario, int concurrency, Duration duration) throws InterruptedException {
+        Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        AtomicLong ok = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicInteger inFlight = new AtomicInteger();
+        long deadline = System.nanoTime() + duration.toNanos();
+        
+        Runnable[] loop = new Runnable[1];
+        loop[0] = () -> {
+            HttpRequest request = System.nanoTime() < deadline ? scenario.request().apply(ThreadLocalRandom.current()) : null;
+            if (request == null) {
+                inFlight.decrementAndGet();
+                return;
+            }
+            long start = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        latencies.recordValue(Math.min(MAX_LATENCY_MICROS, (System.nanoTime() - start) / 1_000));
+                        if (error == null && response.statusCode() == scenario.expectedStatus()) {
+                            ok.incrementAndGet();
+                            if (scenario.name().equals("create")) {
+                                recordCreated(response.body());
+                            }
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                        loop[0].run();
+                    });
+        };
+        
+        long started = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            inFlight.incrementAndGet();
+            loop[0].run();
+        }
+        while (inFlight.get() > 0) {
+            Thread.sleep(20);
+        }
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        return new ScenarioResult(scenario.name(), concurrency, latencies.getTotalCount(), failed.get(),
+                ok.get() / elapsed, millis(latencies.getMean()), millis(latencies.getValueAtPercentile(50)),
+                millis(latencies.getValueAtPercentile(90)), millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getValueAtPercentile(99.9)), millis(latencies.getMaxValue()));
+    }
+    
+    private HttpRequest createStudent(ThreadLocalRandom random) {
+        StudentDTO student = SyntheticStudents.dto(random.nextInt(students));
+        student.setEmail("load-create-" + emailPrefix + uniqueEmails.incrementAndGet() + "@example.com");
+        return post(API, body(student));
+    }
+    
+    private void recordCreated(String body) {
+        Matcher matcher = CREATED_ID.matcher(body);
+        if (matcher.find()) {
+            createdIds.add(Long.parseLong(matcher.group(1)));
+        }
+    }
+    
+    private String batchBody() {
+        List<StudentDTO> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            StudentDTO student = SyntheticStudents.dto(i);
+            student.setEmail("load-batch-" + emailPrefix + uniqueEmails.incrementAndGet() + "@example.com");
+            batch.add(student);
+        }
+        return body(batch);
+    }
+    
+    private String bulkStatusBody(ThreadLocalRandom random) {
+        List<Long> ids = new ArrayList<>(BULK_STATUS_IDS);
+        for (int i = 0; i < BULK_STATUS_IDS; i++) {
+            ids.add(randomId(random));
+        }
+        return body(Map.of("ids", ids));
+    }
+    
+    private long randomId(ThreadLocalRandom random) {
+        return 1L + random.nextInt(students);
+    }
+    
+    private static String randomDepartment(ThreadLocalRandom random) {
+        return SyntheticStudents.department(random.nextInt(SyntheticStudents.DEPARTMENTS));
+    }
+    
+    private static double randomCgpa(ThreadLocalRandom random) {
+        return random.nextInt(400, 1000) / 100.0;
+    }
+    
+    private String body(Object value) {
+        return json.writeValueAsString(value);
+    }
+    
+    private HttpRequest get(String path) {
+        return send("GET", path, null, null);
+    }
+    
+    private HttpRequest ndjson(String path) {
+        return request(path).header("Accept", "application/x-ndjson").GET().build();
+    }
+    
+    private HttpRequest post(String path, String body) {
+        return send("POST", path, body, "application/json");
+    }
+    
+    private HttpRequest send(String method, String path, String body, String contentType) {
+        HttpRequest.Builder builder = request(path).header("Accept", "application/json");
+        if (contentType != null) {
+            builder.header("Content-Type", contentType);
+        }
+        return builder.method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8)).build();
+    }
+    
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofMinutes(2));
+    }
+    
+    // Ids are only predictable on a fresh database seeded in one thread; fail fast otherwise
+    private static void verifySeed(StudentService studentService, int students) {
+        String expected = SyntheticStudents.dto(students - 1).getEmail();
+        String actual = studentService.getStudentById((long) students).getStudent().getEmail();
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException("Student " + students + " is " + actual + ", expected " + expected);
+        }
+    }
+    
+    private static double millis(double micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+    
+    private static String git(Path directory, String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of("git", "-C", directory.toString()));
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String out = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        return process.waitFor() == 0 ? out : "unknown";
+    }
+    
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            int equals = arg.indexOf('=');
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return options;
+    }
+    
+    /**
+     * One endpoint under load. {@code request} returns null once the scenario
+     * has run out of work; {@code maxConcurrency} caps full-table streams and
+     * other requests heavy enough that the suite-wide concurrency would only
+     * measure queueing (a {@code --base-url} run takes its concurrency as given).
+     */
+    private record Scenario(String name, int expectedStatus, int maxConcurrency,
+                            Function<ThreadLocalRandom, HttpRequest> request) {
+        
+        static Scenario of(String name, int expectedStatus, Function<ThreadLocalRandom, HttpRequest> request) {
+            return new Scenario(name, expectedStatus, Integer.MAX_VALUE, request);
+        }
+        
+        static Scenario of(String name, int expectedStatus, int maxConcurrency, Function<ThreadLocalRandom, HttpRequest> request) {
+            return new Scenario(name, expectedStatus, maxConcurrency, request);
+        }
+    }
+    
+    record ScenarioResult(String name, int concurrency, long requests, long errors, double throughput,
+                          double meanMs, double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+    
+    record Run(String commit, boolean dirty, LocalDateTime timestamp, String javaVersion, int cpus, long maxHeapMb,
+               int students, int concurrency, int warmupSeconds, int seconds, double seedSeconds,
+               List<ScenarioResult> scenarios) {
+    }
+}